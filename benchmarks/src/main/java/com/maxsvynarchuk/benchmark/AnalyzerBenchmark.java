@@ -0,0 +1,43 @@
+package com.maxsvynarchuk.benchmark;
+
+import com.maxsvynarchuk.metric.Analyzer;
+import com.maxsvynarchuk.metric.Engine;
+import com.maxsvynarchuk.metric.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A complete {@link Analyzer#calculateMetrics()} run on a freshly scanned analyzer, so no caches carry over
+ * between invocations. Scanning itself is excluded, see {@link ScanBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class AnalyzerBenchmark {
+
+    @Param({"REFLECTION", "BYTECODE"})
+    public Engine engine;
+
+    private Analyzer analyzer;
+
+    @Setup(Level.Invocation)
+    public void setUp(HierarchyState state) {
+        analyzer = state.withClassLoader(() -> new Analyzer(state.packageName, engine));
+    }
+
+    @Benchmark
+    public Result calculateMetrics(HierarchyState state) {
+        return state.withClassLoader(analyzer::calculateMetrics);
+    }
+}
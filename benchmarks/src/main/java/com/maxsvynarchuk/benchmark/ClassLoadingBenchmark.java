@@ -0,0 +1,41 @@
+package com.maxsvynarchuk.benchmark;
+
+import com.maxsvynarchuk.metric.bytecode.ClassInfoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+
+/**
+ * Resolving every type of the hierarchy, once by defining the classes in a fresh loader
+ * and once by parsing their class files for the bytecode engine.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ClassLoadingBenchmark {
+
+    @Benchmark
+    public void loadClasses(HierarchyState state, Blackhole bh) throws ClassNotFoundException, IOException {
+        try (URLClassLoader classLoader = state.newClassLoader()) {
+            for (String className : state.classNames) {
+                bh.consume(Class.forName(className, true, classLoader));
+            }
+        }
+    }
+
+    @Benchmark
+    public void readClassFiles(HierarchyState state, Blackhole bh) {
+        ClassInfoRepository repository = new ClassInfoRepository(state.classLoader);
+        for (String className : state.classNames) {
+            bh.consume(repository.get(className));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.maxsvynarchuk.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Classes under benchmark: either a generated hierarchy or the bundled {@code libs/test.jar}.
+ * The depth, fan-out and member parameters only apply to the synthetic source.
+ */
+@State(Scope.Benchmark)
+public class HierarchyState {
+    public static final String TEST_JAR_PACKAGE = "com.maxsvynarchuk.test";
+
+    @Param({"synthetic", "test-jar"})
+    public String source;
+
+    @Param({"5"})
+    public int depth;
+
+    @Param({"3"})
+    public int fanOut;
+
+    @Param({"10"})
+    public int members;
+
+    /**
+     * Location of the bundled jar, relative to the directory the benchmarks are started from.
+     */
+    @Param({"libs/test.jar"})
+    public String testJar;
+
+    String packageName;
+    List<String> classNames;
+    List<Class<?>> classes;
+    URL location;
+    URLClassLoader classLoader;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if ("synthetic".equals(source)) {
+            directory = Files.createTempDirectory("synthetic-hierarchy");
+            packageName = SyntheticHierarchy.PACKAGE;
+            classNames = SyntheticHierarchy.write(directory, depth, fanOut, members);
+            location = directory.toUri().toURL();
+        } else {
+            Path jar = Path.of(testJar);
+            packageName = TEST_JAR_PACKAGE;
+            classNames = listClassNames(jar);
+            location = jar.toUri().toURL();
+        }
+        classLoader = newClassLoader();
+        classes = new ArrayList<>();
+        for (String className : classNames) {
+            classes.add(Class.forName(className, false, classLoader));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        classLoader.close();
+        if (directory != null) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    URLClassLoader newClassLoader() {
+        return new URLClassLoader(new URL[]{location}, HierarchyState.class.getClassLoader());
+    }
+
+    /**
+     * Runs {@code action} with the hierarchy's class loader as context class loader,
+     * which is the loader {@code Analyzer} scans and resolves types with.
+     */
+    <T> T withClassLoader(Supplier<T> action) {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            return action.get();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    private static List<String> listClassNames(Path jar) throws IOException {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            return jarFile.stream()
+                    .map(entry -> entry.getName())
+                    .filter(name -> name.endsWith(".class"))
+                    .map(name -> name.substring(0, name.length() - ".class".length()).replace('/', '.'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
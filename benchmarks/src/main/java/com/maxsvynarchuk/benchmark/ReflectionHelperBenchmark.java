@@ -0,0 +1,90 @@
+package com.maxsvynarchuk.benchmark;
+
+import com.maxsvynarchuk.metric.ReflectionHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Every {@link ReflectionHelper} query, applied to all types of the hierarchy.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ReflectionHelperBenchmark {
+
+    @Benchmark
+    public void calculateDepthOfInheritanceTree(HierarchyState state, Blackhole bh) {
+        for (Class<?> clazz : state.classes) {
+            bh.consume(ReflectionHelper.calculateDepthOfInheritanceTree(clazz));
+        }
+    }
+
+    @Benchmark
+    public void getAccessibleMethods(HierarchyState state, Blackhole bh) {
+        for (Class<?> clazz : state.classes) {
+            bh.consume(ReflectionHelper.getAccessibleMethods(clazz));
+        }
+    }
+
+    @Benchmark
+    public void getDeclaredMethods(HierarchyState state, Blackhole bh) {
+        for (Class<?> clazz : state.classes) {
+            bh.consume(ReflectionHelper.getDeclaredMethods(clazz));
+        }
+    }
+
+    @Benchmark
+    public void getInheritedAndOverriddenMethods(HierarchyState state, Blackhole bh) {
+        for (Class<?> clazz : state.classes) {
+            bh.consume(ReflectionHelper.getInheritedAndOverriddenMethods(clazz));
+        }
+    }
+
+    @Benchmark
+    public void getAccessibleFields(HierarchyState state, Blackhole bh) {
+        for (Class<?> clazz : state.classes) {
+            bh.consume(ReflectionHelper.getAccessibleFields(clazz));
+        }
+    }
+
+    @Benchmark
+    public void getDeclaredForInheritanceFields(HierarchyState state, Blackhole bh) {
+        for (Class<?> clazz : state.classes) {
+            bh.consume(ReflectionHelper.getDeclaredForInheritanceFields(clazz));
+        }
+    }
+
+    @Benchmark
+    public void getPrivateMethods(HierarchyState state, Blackhole bh) {
+        for (Class<?> clazz : state.classes) {
+            bh.consume(ReflectionHelper.getPrivateMethods(clazz));
+        }
+    }
+
+    @Benchmark
+    public void getOpenMethods(HierarchyState state, Blackhole bh) {
+        for (Class<?> clazz : state.classes) {
+            bh.consume(ReflectionHelper.getOpenMethods(clazz));
+        }
+    }
+
+    @Benchmark
+    public void getPrivateFields(HierarchyState state, Blackhole bh) {
+        for (Class<?> clazz : state.classes) {
+            bh.consume(ReflectionHelper.getPrivateFields(clazz));
+        }
+    }
+
+    @Benchmark
+    public void getAllDeclaredFields(HierarchyState state, Blackhole bh) {
+        for (Class<?> clazz : state.classes) {
+            bh.consume(ReflectionHelper.getAllDeclaredFields(clazz));
+        }
+    }
+}
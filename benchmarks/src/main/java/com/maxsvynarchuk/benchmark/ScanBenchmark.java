@@ -0,0 +1,25 @@
+package com.maxsvynarchuk.benchmark;
+
+import com.maxsvynarchuk.metric.Analyzer;
+import com.maxsvynarchuk.metric.Engine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Classpath scanning: constructing an {@link Analyzer} runs the Reflections subtype scan of the package.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ScanBenchmark {
+
+    @Benchmark
+    public Analyzer scanClasspath(HierarchyState state) {
+        return state.withClassLoader(() -> new Analyzer(state.packageName, Engine.BYTECODE));
+    }
+}
@@ -0,0 +1,82 @@
+package com.maxsvynarchuk.benchmark;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewMethod;
+import javassist.NotFoundException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a generated class hierarchy as plain class files.
+ * <p>
+ * A single root type implements an interface and every type at a level below {@code depth} has
+ * {@code fanOut} direct subclasses. Each type declares {@code members} methods overriding its parent's,
+ * {@code members} new methods, {@code members} private methods and {@code members} fields, half of them private.
+ */
+public final class SyntheticHierarchy {
+    public static final String PACKAGE = "com.maxsvynarchuk.benchmark.synthetic";
+
+    private SyntheticHierarchy() {
+    }
+
+    /**
+     * @return binary names of all generated types
+     */
+    public static List<String> write(Path directory, int depth, int fanOut, int members)
+            throws CannotCompileException, NotFoundException, IOException {
+        ClassPool pool = new ClassPool(true);
+        List<String> classNames = new ArrayList<>();
+
+        CtClass contract = pool.makeInterface(PACKAGE + ".Contract");
+        for (int i = 0; i < members; i++) {
+            contract.addMethod(CtNewMethod.abstractMethod(CtClass.voidType, "c" + i, new CtClass[0], null, contract));
+        }
+        write(contract, directory, classNames);
+
+        CtClass root = pool.makeClass(PACKAGE + ".Type0");
+        root.addInterface(contract);
+        for (int i = 0; i < members; i++) {
+            root.addMethod(CtNewMethod.make("public void c" + i + "() {}", root));
+        }
+        addMembers(root, 0, members);
+        write(root, directory, classNames);
+
+        List<CtClass> level = List.of(root);
+        int nextId = 1;
+        for (int d = 1; d <= depth; d++) {
+            List<CtClass> nextLevel = new ArrayList<>();
+            for (CtClass parent : level) {
+                for (int f = 0; f < fanOut; f++) {
+                    int id = nextId++;
+                    CtClass type = pool.makeClass(PACKAGE + ".Type" + id, parent);
+                    addMembers(type, id, members);
+                    write(type, directory, classNames);
+                    nextLevel.add(type);
+                }
+            }
+            level = nextLevel;
+        }
+        return classNames;
+    }
+
+    private static void addMembers(CtClass type, int id, int members) throws CannotCompileException {
+        for (int i = 0; i < members; i++) {
+            type.addMethod(CtNewMethod.make("public void m" + i + "() {}", type));
+            type.addMethod(CtNewMethod.make("public void n" + id + "_" + i + "() {}", type));
+            type.addMethod(CtNewMethod.make("private void p" + i + "() {}", type));
+            type.addField(CtField.make((i % 2 == 0 ? "public" : "private") + " int f" + id + "_" + i + ";", type));
+        }
+    }
+
+    private static void write(CtClass type, Path directory, List<String> classNames)
+            throws CannotCompileException, IOException {
+        type.writeFile(directory.toString());
+        classNames.add(type.getName());
+    }
+}
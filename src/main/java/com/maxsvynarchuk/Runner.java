@@ -1,8 +1,28 @@
 package com.maxsvynarchuk;
 
 import com.maxsvynarchuk.metric.Analyzer;
+import com.maxsvynarchuk.metric.AnalyzerOptions;
+import com.maxsvynarchuk.metric.ArtifactAnalyzer;
+import com.maxsvynarchuk.metric.ClassDirectoryWatcher;
+import com.maxsvynarchuk.metric.Engine;
+import com.maxsvynarchuk.metric.Sampling;
+import com.maxsvynarchuk.metric.bytecode.ScanIndex;
+import com.maxsvynarchuk.metric.plugin.MetricPlugin;
+import com.maxsvynarchuk.metric.plugin.MetricPlugins;
+import com.maxsvynarchuk.metric.report.ReportFormat;
+import com.maxsvynarchuk.metric.report.ReportWriter;
+import com.maxsvynarchuk.metric.report.ReportWriters;
 import lombok.Setter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
 @Setter
 public class Runner {
 
@@ -10,13 +30,140 @@ public class Runner {
 //    public static final String PACKAGE = "com.maxsvynarchuk.test.methods";
     public static final String PACKAGE = "com.maxsvynarchuk.test.fields";
 
+    /**
+     * Without arguments analyzes {@link #PACKAGE} on the class path, otherwise
+     * {@code [--engine=REFLECTION|BYTECODE] [--package=prefix] [--format=text|jsonl|csv] [--metrics=AHF,MHF,...]
+     * [--resilient] [--class-time-budget=10s] [--run-time-budget=20m]
+     * [--sample-size=500 | --target-error=0.01] [--confidence-level=0.95] [--seed=0] <jar or class directory>...},
+     * where the sampling options estimate the factors from a stratified sample of the classes,
+     * or {@code --watch [--package=prefix] [--format=...] [--metrics=...] <class directory>}, which reports
+     * the factors again whenever the class files change,
+     * or {@code --compare [--engine=...] [--package=prefix] <baseline> <current>}, which prints what changed,
+     * or {@code --write-scan-index <class directory>...}, which writes the {@link ScanIndex} of each directory.
+     * {@code --no-scan-index} scans the class files even where an up-to-date index exists.
+     */
     public static void main(String[] args) {
         try {
-            Analyzer analyzer = new Analyzer(PACKAGE);
-            analyzer.calculateMetrics().printAll();
+            if (args.length == 0) {
+                Analyzer analyzer = new Analyzer(PACKAGE);
+                analyzer.calculateMetrics().printAll();
+                return;
+            }
+            Engine engine = Engine.REFLECTION;
+            String packagePrefix = "";
+            String format = ReportFormat.TEXT.getFormat();
+            List<MetricPlugin> metrics = MetricPlugins.builtIn();
+            List<Path> artifacts = new ArrayList<>();
+            boolean watch = false;
+            boolean compare = false;
+            boolean resilient = false;
+            boolean writeScanIndex = false;
+            boolean useScanIndex = true;
+            Duration classTimeBudget = null;
+            Duration runTimeBudget = null;
+            Sampling.SamplingBuilder sampling = null;
+            for (String arg : args) {
+                if (arg.equals("--watch")) {
+                    watch = true;
+                } else if (arg.equals("--compare")) {
+                    compare = true;
+                } else if (arg.equals("--write-scan-index")) {
+                    writeScanIndex = true;
+                } else if (arg.equals("--no-scan-index")) {
+                    useScanIndex = false;
+                } else if (arg.equals("--resilient")) {
+                    resilient = true;
+                } else if (arg.startsWith("--class-time-budget=")) {
+                    classTimeBudget = Duration.parse("PT" + arg.substring("--class-time-budget=".length()));
+                } else if (arg.startsWith("--run-time-budget=")) {
+                    runTimeBudget = Duration.parse("PT" + arg.substring("--run-time-budget=".length()));
+                } else if (arg.startsWith("--sample-size=")) {
+                    sampling = getSampling(sampling)
+                            .sampleSize(Integer.parseInt(arg.substring("--sample-size=".length())));
+                } else if (arg.startsWith("--target-error=")) {
+                    sampling = getSampling(sampling)
+                            .targetError(Double.parseDouble(arg.substring("--target-error=".length())));
+                } else if (arg.startsWith("--confidence-level=")) {
+                    sampling = getSampling(sampling)
+                            .confidenceLevel(Double.parseDouble(arg.substring("--confidence-level=".length())));
+                } else if (arg.startsWith("--seed=")) {
+                    sampling = getSampling(sampling).seed(Long.parseLong(arg.substring("--seed=".length())));
+                } else if (arg.startsWith("--engine=")) {
+                    engine = Engine.valueOf(arg.substring("--engine=".length()));
+                } else if (arg.startsWith("--metrics=")) {
+                    metrics = MetricPlugins.byNames(List.of(arg.substring("--metrics=".length()).split(",")));
+                } else if (arg.startsWith("--format=")) {
+                    format = arg.substring("--format=".length());
+                } else if (arg.startsWith("--package=")) {
+                    packagePrefix = arg.substring("--package=".length());
+                } else {
+                    artifacts.add(Paths.get(arg));
+                }
+            }
+            if (writeScanIndex) {
+                for (Path artifact : artifacts) {
+                    System.out.println("Indexed " + ScanIndex.write(artifact) + " classes of " + artifact);
+                }
+                return;
+            }
+            AnalyzerOptions options = AnalyzerOptions.builder()
+                    .engine(engine)
+                    .metrics(metrics)
+                    .useScanIndex(useScanIndex)
+                    .resilient(resilient)
+                    .classTimeBudget(classTimeBudget)
+                    .runTimeBudget(runTimeBudget)
+                    .sampling(Objects.isNull(sampling) ? null : sampling.build())
+                    .build();
+            ArtifactAnalyzer analyzer = new ArtifactAnalyzer(packagePrefix, options);
+            if (compare) {
+                if (artifacts.size() != 2) {
+                    throw new IllegalArgumentException("Comparison takes a baseline and a current artifact");
+                }
+                analyzer.compare(artifacts.get(0), artifacts.get(1)).printAll();
+                return;
+            }
+            ReportWriter reportWriter = ReportWriters.create(format, System.out);
+            if (watch) {
+                watch(artifacts, packagePrefix, options, reportWriter);
+                return;
+            }
+            boolean text = format.equals(ReportFormat.TEXT.getFormat());
+            for (Path artifact : artifacts) {
+                if (text) {
+                    System.out.println(">>> Artifact: " + artifact);
+                }
+                analyzer.analyze(artifact, reportWriter);
+                if (text) {
+                    System.out.println();
+                }
+            }
         } catch (Exception e) {
             System.out.println(e);
         }
     }
 
+    private static Sampling.SamplingBuilder getSampling(Sampling.SamplingBuilder sampling) {
+        return Objects.isNull(sampling) ? Sampling.builder() : sampling;
+    }
+
+    private static void watch(List<Path> artifacts, String packagePrefix, AnalyzerOptions options,
+                              ReportWriter reportWriter) throws IOException {
+        if (artifacts.size() != 1) {
+            throw new IllegalArgumentException("Watch mode takes one class directory");
+        }
+        try (ClassDirectoryWatcher watcher = new ClassDirectoryWatcher(artifacts.get(0), packagePrefix, options)) {
+            reportWriter.writeReport(watcher.getResult());
+            reportWriter.flush();
+            watcher.watch(update -> {
+                try {
+                    reportWriter.writeSummary(update);
+                    reportWriter.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
 }
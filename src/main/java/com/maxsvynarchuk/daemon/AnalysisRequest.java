@@ -0,0 +1,110 @@
+package com.maxsvynarchuk.daemon;
+
+import com.maxsvynarchuk.metric.Engine;
+import com.maxsvynarchuk.metric.plugin.MetricPlugin;
+import com.maxsvynarchuk.metric.plugin.MetricPlugins;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * What to analyze. Equal requests that reach the daemon together are analyzed once.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class AnalysisRequest {
+    /**
+     * Package requests first, broader packages before the packages they contain,
+     * so the ancestors they share are already cached when the narrower ones run.
+     */
+    static final Comparator<AnalysisRequest> BATCH_ORDER = Comparator
+            .comparing((AnalysisRequest request) -> Objects.nonNull(request.getArtifact()))
+            .thenComparingInt(request -> request.getPackagePath().length())
+            .thenComparing(AnalysisRequest::toQuery);
+
+    private final String packagePath;
+    /**
+     * Absolute path of a JAR or class directory, {@code null} for a package on the daemon's class path.
+     */
+    private final Path artifact;
+    private final Engine engine;
+    /**
+     * Names of the selected metrics, empty for the built-in ones.
+     */
+    private final List<String> metrics;
+
+    public AnalysisRequest(String packagePath, Path artifact, Engine engine, List<String> metrics) {
+        this.packagePath = Objects.requireNonNull(packagePath);
+        this.artifact = Objects.isNull(artifact) ? null : artifact.toAbsolutePath().normalize();
+        this.engine = Objects.requireNonNull(engine);
+        this.metrics = List.copyOf(metrics);
+    }
+
+    public List<MetricPlugin> getMetricPlugins() {
+        return metrics.isEmpty() ? MetricPlugins.builtIn() : MetricPlugins.byNames(metrics);
+    }
+
+    /**
+     * Inverse of {@link #parseQuery} followed by {@link #fromQuery}.
+     */
+    public String toQuery() {
+        StringBuilder query = new StringBuilder("package=").append(encode(packagePath));
+        if (Objects.nonNull(artifact)) {
+            query.append("&artifact=").append(encode(artifact.toString()));
+        }
+        query.append("&engine=").append(engine);
+        if (!metrics.isEmpty()) {
+            query.append("&metrics=").append(encode(String.join(",", metrics)));
+        }
+        return query.toString();
+    }
+
+    public static AnalysisRequest fromQuery(Map<String, String> parameters) {
+        String artifact = parameters.get("artifact");
+        String metrics = parameters.getOrDefault("metrics", "");
+        return new AnalysisRequest(
+                parameters.getOrDefault("package", ""),
+                Objects.isNull(artifact) ? null : Paths.get(artifact),
+                Engine.valueOf(parameters.getOrDefault("engine", Engine.REFLECTION.name())),
+                metrics.isEmpty() ? List.of() : List.of(metrics.split(",")));
+    }
+
+    /**
+     * @return decoded parameters of an {@code application/x-www-form-urlencoded} query, in order
+     */
+    public static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (Objects.isNull(query) || query.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator < 0) {
+                parameters.put(decode(parameter), "");
+            } else {
+                parameters.put(decode(parameter.substring(0, separator)), decode(parameter.substring(separator + 1)));
+            }
+        }
+        return parameters;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
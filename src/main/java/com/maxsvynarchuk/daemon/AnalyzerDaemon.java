@@ -0,0 +1,257 @@
+package com.maxsvynarchuk.daemon;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.maxsvynarchuk.metric.Analyzer;
+import com.maxsvynarchuk.metric.AnalyzerCaches;
+import com.maxsvynarchuk.metric.AnalyzerOptions;
+import com.maxsvynarchuk.metric.ArtifactAnalyzer;
+import com.maxsvynarchuk.metric.ArtifactSession;
+import com.maxsvynarchuk.metric.Result;
+import com.maxsvynarchuk.metric.report.ReportFormat;
+import com.maxsvynarchuk.metric.report.ReportWriter;
+import com.maxsvynarchuk.metric.report.ReportWriterProvider;
+import com.maxsvynarchuk.metric.report.ReportWriters;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.EqualsAndHashCode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps analyzers warm between requests served on the loopback interface:
+ * <ul>
+ * <li>{@code GET /analyze?package=&artifact=&engine=&metrics=&format=} streams the report of one package
+ * on the daemon's class path, or of one JAR or class directory when {@code artifact} is given;</li>
+ * <li>{@code POST /shutdown} stops the daemon.</li>
+ * </ul>
+ * Packages on the class path keep their scan and share one {@link AnalyzerCaches}, so ancestors common
+ * to several packages are resolved once. Artifacts keep an open {@link ArtifactSession} until they change;
+ * a class directory counts as changed once any class file below it was added, removed or rewritten.
+ */
+public class AnalyzerDaemon {
+    public static final int DEFAULT_PORT = 7878;
+    private static final long BATCH_WINDOW_MILLIS = 20;
+    private static final long MAXIMUM_ARTIFACT_SESSIONS = 16;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private final HttpServer server;
+    private final ExecutorService httpExecutor = Executors.newFixedThreadPool(8);
+    private final RequestBatcher batcher = new RequestBatcher(this::analyze, BATCH_WINDOW_MILLIS);
+    private final AnalyzerCaches caches;
+    private final Map<AnalysisRequest, Analyzer> packageAnalyzers = new ConcurrentHashMap<>();
+    private final Cache<ArtifactKey, ArtifactSession> artifactSessions = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_ARTIFACT_SESSIONS)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .removalListener((RemovalListener<ArtifactKey, ArtifactSession>) notification -> {
+                try {
+                    notification.getValue().close();
+                } catch (IOException ignored) {
+                }
+            })
+            .build();
+
+    public AnalyzerDaemon(int port) throws IOException {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        this.caches = new AnalyzerCaches(Objects.nonNull(contextClassLoader)
+                ? contextClassLoader
+                : ClassLoader.getSystemClassLoader());
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(httpExecutor);
+        server.createContext("/analyze", this::handleAnalyze);
+        server.createContext("/shutdown", this::handleShutdown);
+    }
+
+    /**
+     * {@code [--port=7878]}
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            }
+        }
+        AnalyzerDaemon daemon = new AnalyzerDaemon(port);
+        daemon.start();
+        System.out.println("Analyzer daemon listening on " + daemon.server.getAddress());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Fails the requests that still wait for an analysis, lets their handlers answer them for up to
+     * {@value #STOP_DELAY_SECONDS} second and then closes the server.
+     */
+    public void stop() {
+        batcher.shutdown();
+        server.stop(STOP_DELAY_SECONDS);
+        httpExecutor.shutdown();
+        artifactSessions.invalidateAll();
+    }
+
+    private Result analyze(AnalysisRequest request) {
+        AnalyzerOptions options = AnalyzerOptions.builder()
+                .engine(request.getEngine())
+                .metrics(request.getMetricPlugins())
+                .caches(caches)
+                .build();
+        if (Objects.isNull(request.getArtifact())) {
+            return packageAnalyzers
+                    .computeIfAbsent(request, key -> new Analyzer(key.getPackagePath(), options))
+                    .calculateMetrics();
+        }
+        try {
+            ArtifactKey key = new ArtifactKey(request, getFingerprint(request.getArtifact()));
+            // sessions of every request on the artifact's previous build hold stale classes and an open file system
+            artifactSessions.asMap().keySet().removeIf(other ->
+                    other.request.getArtifact().equals(request.getArtifact())
+                            && !other.fingerprint.equals(key.fingerprint));
+            ArtifactSession session = artifactSessions.get(key,
+                    () -> new ArtifactAnalyzer(request.getPackagePath(), options).open(request.getArtifact()));
+            return session.analyze();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ExecutionException e) {
+            throw new UncheckedIOException((IOException) e.getCause());
+        }
+    }
+
+    private void handleAnalyze(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                sendError(exchange, 405, "Use GET");
+                return;
+            }
+            Map<String, String> parameters = AnalysisRequest.parseQuery(exchange.getRequestURI().getRawQuery());
+            AnalysisRequest request;
+            ReportWriterProvider provider;
+            try {
+                request = AnalysisRequest.fromQuery(parameters);
+                request.getMetricPlugins();
+                provider = ReportWriters.getProvider(parameters.getOrDefault("format", ReportFormat.TEXT.getFormat()));
+                if (Objects.nonNull(request.getArtifact()) && !Files.isDirectory(request.getArtifact())
+                        && !Files.isRegularFile(request.getArtifact())) {
+                    throw new IllegalArgumentException("Invalid artifact path: " + request.getArtifact());
+                }
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.toString());
+                return;
+            }
+            Result result;
+            try {
+                result = batcher.submit(request).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sendError(exchange, 503, e.toString());
+                return;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                sendError(exchange, cause instanceof RejectedExecutionException ? 503 : 500, cause.toString());
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", provider.getMediaType() + "; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (ReportWriter reportWriter = ReportWriters.create(provider.getFormat(), exchange.getResponseBody())) {
+                reportWriter.writeReport(result);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleShutdown(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendError(exchange, 405, "Use POST");
+                return;
+            }
+            exchange.sendResponseHeaders(204, -1);
+        } finally {
+            exchange.close();
+        }
+        new Thread(this::stop, "analyzer-daemon-shutdown").start();
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = (message + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * A JAR is fingerprinted by its own modification time and size. A class directory's own attributes
+     * do not change when a class in a subpackage is recompiled, so its fingerprint is the number, total size
+     * and latest modification time of the class files below it.
+     */
+    private static Fingerprint getFingerprint(Path artifact) throws IOException {
+        if (!Files.isDirectory(artifact)) {
+            BasicFileAttributes attributes = Files.readAttributes(artifact, BasicFileAttributes.class);
+            return new Fingerprint(1, attributes.size(), attributes.lastModifiedTime().toMillis());
+        }
+        long[] fingerprint = new long[3];
+        Files.walkFileTree(artifact, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && file.getFileName().toString().endsWith(".class")) {
+                    fingerprint[0]++;
+                    fingerprint[1] += attributes.size();
+                    fingerprint[2] = Math.max(fingerprint[2], attributes.lastModifiedTime().toMillis());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return new Fingerprint(fingerprint[0], fingerprint[1], fingerprint[2]);
+    }
+
+    @EqualsAndHashCode
+    private static class Fingerprint {
+        private final long numOfFiles;
+        private final long size;
+        private final long lastModified;
+
+        Fingerprint(long numOfFiles, long size, long lastModified) {
+            this.numOfFiles = numOfFiles;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Sessions of an artifact that was rebuilt since it was opened are not reused.
+     */
+    @EqualsAndHashCode
+    private static class ArtifactKey {
+        private final AnalysisRequest request;
+        private final Fingerprint fingerprint;
+
+        ArtifactKey(AnalysisRequest request, Fingerprint fingerprint) {
+            this.request = request;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.maxsvynarchuk.daemon;
+
+import com.maxsvynarchuk.Runner;
+import com.maxsvynarchuk.metric.Engine;
+import com.maxsvynarchuk.metric.report.ReportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Replacement of {@link Runner} for repeated invocations: sends the analysis to a running
+ * {@link AnalyzerDaemon} and copies the report to {@code System.out}. Exits with status 1 on failure.
+ */
+public class DaemonClient {
+    private static final String USAGE = "Usage: DaemonClient [--port=7878] [--engine=...] [--metrics=...] "
+            + "[--format=...] [--package=prefix] [artifact...]";
+
+    /**
+     * {@code [--port=7878] [--engine=...] [--metrics=...] [--format=...] [--package=prefix] [artifact...]},
+     * the subset of the arguments of {@link Runner#main} the daemon supports; any other option is rejected.
+     * Without artifacts analyzes the {@code --package} on the daemon's class path, {@link Runner#PACKAGE}
+     * by default.
+     */
+    public static void main(String[] args) {
+        try {
+            int port = AnalyzerDaemon.DEFAULT_PORT;
+            Engine engine = Engine.REFLECTION;
+            String packagePath = null;
+            String format = ReportFormat.TEXT.getFormat();
+            List<String> metrics = List.of();
+            List<Path> artifacts = new ArrayList<>();
+            for (String arg : args) {
+                if (arg.startsWith("--port=")) {
+                    port = Integer.parseInt(arg.substring("--port=".length()));
+                } else if (arg.startsWith("--engine=")) {
+                    engine = Engine.valueOf(arg.substring("--engine=".length()));
+                } else if (arg.startsWith("--metrics=")) {
+                    metrics = List.of(arg.substring("--metrics=".length()).split(","));
+                } else if (arg.startsWith("--format=")) {
+                    format = arg.substring("--format=".length());
+                } else if (arg.startsWith("--package=")) {
+                    packagePath = arg.substring("--package=".length());
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unsupported option " + arg + "\n" + USAGE);
+                } else {
+                    artifacts.add(Paths.get(arg));
+                }
+            }
+            if (artifacts.isEmpty()) {
+                String path = Objects.isNull(packagePath) ? Runner.PACKAGE : packagePath;
+                request(port, new AnalysisRequest(path, null, engine, metrics), format, false);
+                return;
+            }
+            boolean text = format.equals(ReportFormat.TEXT.getFormat());
+            boolean csv = format.equals(ReportFormat.CSV.getFormat());
+            String prefix = Objects.isNull(packagePath) ? "" : packagePath;
+            for (Path artifact : artifacts) {
+                if (text) {
+                    System.out.println(">>> Artifact: " + artifact);
+                }
+                // Runner writes a single CSV header for all artifacts
+                boolean skipHeader = csv && artifact != artifacts.get(0);
+                request(port, new AnalysisRequest(prefix, artifact, engine, metrics), format, skipHeader);
+                if (text) {
+                    System.out.println();
+                }
+            }
+        } catch (Exception e) {
+            System.err.println(e);
+            System.exit(1);
+        }
+    }
+
+    private static void request(int port, AnalysisRequest request, String format, boolean skipFirstLine)
+            throws IOException {
+        URL url = new URL("http", "127.0.0.1", port, "/analyze?" + request.toQuery()
+                + "&format=" + URLEncoder.encode(format, StandardCharsets.UTF_8));
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                try (InputStream error = connection.getErrorStream()) {
+                    String message = Objects.isNull(error)
+                            ? ""
+                            : new String(error.readAllBytes(), StandardCharsets.UTF_8);
+                    throw new IOException("Daemon responded " + status + ": " + message.strip());
+                }
+            }
+            try (InputStream in = connection.getInputStream()) {
+                if (skipFirstLine) {
+                    int b;
+                    do {
+                        b = in.read();
+                    } while (b != -1 && b != '\n');
+                }
+                in.transferTo(System.out);
+            }
+            System.out.flush();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.maxsvynarchuk.daemon;
+
+import com.maxsvynarchuk.metric.Result;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects the requests that arrive within a short window and runs them as one batch on a single thread,
+ * once per distinct request and in {@link AnalysisRequest#BATCH_ORDER}.
+ */
+class RequestBatcher {
+    private final Function<AnalysisRequest, Result> analysis;
+    private final long windowMillis;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "analyzer-daemon-batch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Map<AnalysisRequest, CompletableFuture<Result>> pending = new HashMap<>();
+    /**
+     * Requests of the batch that is being run, some of them possibly answered already.
+     */
+    private Map<AnalysisRequest, CompletableFuture<Result>> running = Map.of();
+    private boolean stopped;
+
+    RequestBatcher(Function<AnalysisRequest, Result> analysis, long windowMillis) {
+        this.analysis = analysis;
+        this.windowMillis = windowMillis;
+    }
+
+    synchronized CompletableFuture<Result> submit(AnalysisRequest request) {
+        if (stopped) {
+            return CompletableFuture.failedFuture(newStoppedException());
+        }
+        if (pending.isEmpty()) {
+            executor.schedule(this::runBatch, windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return pending.computeIfAbsent(request, key -> new CompletableFuture<>());
+    }
+
+    /**
+     * Stops the batch thread and fails every request that is not answered yet with a
+     * {@link RejectedExecutionException}, so that no caller keeps waiting for its result.
+     */
+    void shutdown() {
+        List<CompletableFuture<Result>> unanswered = new ArrayList<>();
+        synchronized (this) {
+            stopped = true;
+            unanswered.addAll(running.values());
+            unanswered.addAll(pending.values());
+            pending = new HashMap<>();
+        }
+        executor.shutdownNow();
+        RejectedExecutionException stoppedException = newStoppedException();
+        unanswered.forEach(future -> future.completeExceptionally(stoppedException));
+    }
+
+    private static RejectedExecutionException newStoppedException() {
+        return new RejectedExecutionException("Analyzer daemon is stopping");
+    }
+
+    private void runBatch() {
+        Map<AnalysisRequest, CompletableFuture<Result>> batch;
+        synchronized (this) {
+            batch = pending;
+            running = batch;
+            pending = new HashMap<>();
+        }
+        batch.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(AnalysisRequest.BATCH_ORDER))
+                // requests failed by shutdown() are not analyzed
+                .filter(entry -> !entry.getValue().isDone())
+                .forEach(entry -> {
+                    try {
+                        entry.getValue().complete(analysis.apply(entry.getKey()));
+                    } catch (RuntimeException | LinkageError e) {
+                        entry.getValue().completeExceptionally(e);
+                    }
+                });
+    }
+}
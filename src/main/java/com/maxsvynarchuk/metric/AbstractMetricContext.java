@@ -0,0 +1,119 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.plugin.MetricContext;
+import com.maxsvynarchuk.metric.plugin.MetricInput;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Checks every access against the declared inputs and gathers each input at most once per class,
+ * so metrics sharing an input (e.g. MIF and POF the declared methods) do not read it twice.
+ */
+abstract class AbstractMetricContext<T> implements MetricContext {
+    protected final T type;
+    private final String className;
+    private final Set<MetricInput> inputs;
+    private final HierarchyIndex hierarchyIndex;
+    private final InheritedMembersCache<T> inheritedMembersCache;
+
+    private List<MethodSignature> declaredMethodSignatures;
+    private Set<String> declaredForInheritanceFieldNames;
+
+    /**
+     * @param hierarchyIndex        {@code null} unless {@code inputs} contain {@link MetricInput#HIERARCHY}
+     * @param inheritedMembersCache {@code null} unless {@code inputs} contain {@link MetricInput#INHERITED_MEMBERS}
+     */
+    AbstractMetricContext(T type, String className, Set<MetricInput> inputs,
+                          HierarchyIndex hierarchyIndex, InheritedMembersCache<T> inheritedMembersCache) {
+        this.type = type;
+        this.className = className;
+        this.inputs = inputs;
+        this.hierarchyIndex = hierarchyIndex;
+        this.inheritedMembersCache = inheritedMembersCache;
+    }
+
+    @Override
+    public String getClassName() {
+        return className;
+    }
+
+    @Override
+    public int getDepthOfInheritanceTree() {
+        require(MetricInput.HIERARCHY);
+        return hierarchyIndex.getDepthOfInheritanceTree(hierarchyIndex.indexOf(className));
+    }
+
+    @Override
+    public int getNumOfChildren() {
+        require(MetricInput.HIERARCHY);
+        return hierarchyIndex.getNumOfChildren(hierarchyIndex.indexOf(className));
+    }
+
+    @Override
+    public List<MethodSignature> getDeclaredMethodSignatures() {
+        require(MetricInput.DECLARED_MEMBERS);
+        if (Objects.isNull(declaredMethodSignatures)) {
+            declaredMethodSignatures = readDeclaredMethodSignatures();
+        }
+        return declaredMethodSignatures;
+    }
+
+    @Override
+    public int getNumOfPrivateMethods() {
+        require(MetricInput.DECLARED_MEMBERS);
+        return countPrivateMethods();
+    }
+
+    @Override
+    public int getNumOfOpenMethods() {
+        require(MetricInput.DECLARED_MEMBERS);
+        return countOpenMethods();
+    }
+
+    @Override
+    public Set<String> getDeclaredForInheritanceFieldNames() {
+        require(MetricInput.DECLARED_MEMBERS);
+        if (Objects.isNull(declaredForInheritanceFieldNames)) {
+            declaredForInheritanceFieldNames = readDeclaredForInheritanceFieldNames();
+        }
+        return declaredForInheritanceFieldNames;
+    }
+
+    @Override
+    public int getNumOfPrivateFields() {
+        require(MetricInput.DECLARED_MEMBERS);
+        return countPrivateFields();
+    }
+
+    @Override
+    public int getNumOfFields() {
+        require(MetricInput.DECLARED_MEMBERS);
+        return countFields();
+    }
+
+    @Override
+    public InheritedMembers getInheritedMembers() {
+        require(MetricInput.INHERITED_MEMBERS);
+        return inheritedMembersCache.get(type);
+    }
+
+    protected abstract List<MethodSignature> readDeclaredMethodSignatures();
+
+    protected abstract int countPrivateMethods();
+
+    protected abstract int countOpenMethods();
+
+    protected abstract Set<String> readDeclaredForInheritanceFieldNames();
+
+    protected abstract int countPrivateFields();
+
+    protected abstract int countFields();
+
+    private void require(MetricInput input) {
+        if (!inputs.contains(input)) {
+            throw new IllegalStateException("Metric input " + input + " was not declared by any selected metric");
+        }
+    }
+}
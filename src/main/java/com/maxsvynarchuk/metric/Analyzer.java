@@ -1,214 +1,782 @@
 package com.maxsvynarchuk.metric;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
+import com.maxsvynarchuk.metric.AnalyzerStatistics.Phase;
+import com.maxsvynarchuk.metric.bytecode.BytecodeTypeHierarchy;
+import com.maxsvynarchuk.metric.bytecode.ClassInfo;
+import com.maxsvynarchuk.metric.bytecode.ClassFileSource;
+import com.maxsvynarchuk.metric.bytecode.ClassFileTypeScan;
+import com.maxsvynarchuk.metric.bytecode.ClassInfoRepository;
+import com.maxsvynarchuk.metric.bytecode.ScanIndex;
+import com.maxsvynarchuk.metric.plugin.BuiltInMetric;
+import com.maxsvynarchuk.metric.plugin.MetricContext;
+import com.maxsvynarchuk.metric.plugin.MetricInput;
+import com.maxsvynarchuk.metric.plugin.MetricPlugin;
+import com.maxsvynarchuk.metric.plugin.MetricPlugins;
+import com.maxsvynarchuk.metric.report.ReportWriter;
 import org.reflections.Reflections;
 import org.reflections.scanners.SubTypesScanner;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.FilterBuilder;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static com.maxsvynarchuk.metric.ReflectionHelper.*;
-
 public class Analyzer {
+    /**
+     * Number of classes analyzed between two hand-offs to the sink.
+     */
+    private static final int BATCH_SIZE = 4096;
+    private static final String JAR_URL_PREFIX = "jar:";
+    private static final String JAR_URL_SUFFIX = "!/";
+
     private final String packagePath;
-    private Reflections reflections;
+    private final AnalyzerOptions options;
+    /**
+     * Loader the package is scanned and its types are resolved with.
+     */
+    private final ClassLoader classLoader;
+    private final TypeScan typeScan;
+    /**
+     * Build-time indexes the package was scanned from, empty if it was scanned through Reflections.
+     */
+    private List<ScanIndex> scanIndexes = List.of();
+    private final List<MetricPlugin> metrics;
+    /**
+     * Union of the inputs the selected metrics declare; nothing else is gathered.
+     */
+    private final Set<MetricInput> inputs;
+    private ClassInfoRepository classInfoRepository;
+    private InheritedMembersCache<Class<?>> inheritedMembersCache;
+    private InheritedMembersCache<ClassInfo> inheritedClassInfoMembersCache;
+
+    private HierarchyIndex hierarchyIndex;
+    /**
+     * Statistics of the next or current run; replaced once a run completes.
+     */
+    private AnalyzerStatistics statistics = new AnalyzerStatistics();
+    /**
+     * Time budget of the current run; replaced when a run starts.
+     */
+    private TimeBudget timeBudget = new TimeBudget(null, null);
+    /**
+     * Classes the current run left out, by name; only filled in resilient mode.
+     */
+    private final Map<String, SkippedClass> skippedClasses = new ConcurrentSkipListMap<>();
 
     public Analyzer(String packagePath) {
+        this(packagePath, AnalyzerOptions.builder().build());
+    }
+
+    public Analyzer(String packagePath, Engine engine) {
+        this(packagePath, AnalyzerOptions.builder().engine(engine).build());
+    }
+
+    public Analyzer(String packagePath, AnalyzerOptions options) {
+        this.packagePath = Objects.requireNonNull(packagePath);
+        this.options = Objects.requireNonNull(options);
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        this.classLoader = Objects.nonNull(contextClassLoader)
+                ? contextClassLoader
+                : ClassLoader.getSystemClassLoader();
+        this.typeScan = statistics.time(Phase.SCAN, this::scanPackage);
+        this.metrics = List.copyOf(options.getMetrics());
+        this.inputs = collectInputs(metrics);
+        AnalyzerCaches caches = options.getCaches();
+        if (Objects.nonNull(caches)) {
+            if (caches.getClassLoader() != classLoader) {
+                throw new IllegalArgumentException("Caches belong to another class loader");
+            }
+            classInfoRepository = caches.getClassInfoRepository();
+            inheritedMembersCache = caches.getInheritedMembersCache();
+            inheritedClassInfoMembersCache = caches.getInheritedClassInfoMembersCache();
+            return;
+        }
+        if (options.getEngine() == Engine.BYTECODE || Objects.nonNull(options.getMetricsCacheFile())) {
+            initClassInfoRepository();
+        }
+        initInheritedMembersCache();
+    }
+
+    /**
+     * Analyzes types that were already scanned, resolving them through {@code classLoader}
+     * for the reflection engine and through {@code classInfoRepository} for the bytecode engine.
+     *
+     * @param statistics statistics of the first run, holding the time the scan took
+     */
+    Analyzer(String packagePath, ClassLoader classLoader, ClassInfoRepository classInfoRepository,
+             TypeScan typeScan, AnalyzerStatistics statistics, AnalyzerOptions options) {
+        this.statistics = Objects.requireNonNull(statistics);
         this.packagePath = Objects.requireNonNull(packagePath);
-        initReflections();
+        this.options = Objects.requireNonNull(options);
+        this.classLoader = Objects.requireNonNull(classLoader);
+        this.classInfoRepository = Objects.requireNonNull(classInfoRepository);
+        this.typeScan = Objects.requireNonNull(typeScan);
+        this.metrics = List.copyOf(options.getMetrics());
+        this.inputs = collectInputs(metrics);
+        initInheritedMembersCache();
+    }
+
+    private static Set<MetricInput> collectInputs(List<MetricPlugin> metrics) {
+        Set<MetricInput> inputs = EnumSet.noneOf(MetricInput.class);
+        metrics.forEach(metric -> inputs.addAll(metric.getInputs()));
+        return Collections.unmodifiableSet(inputs);
+    }
+
+    private void initInheritedMembersCache() {
+        if (!inputs.contains(MetricInput.INHERITED_MEMBERS)) {
+            return;
+        }
+        if (options.getEngine() == Engine.BYTECODE) {
+            inheritedClassInfoMembersCache = new InheritedMembersCache<>(
+                    new BytecodeTypeHierarchy(classInfoRepository), options.getMemberCacheSize());
+        } else {
+            inheritedMembersCache = new InheritedMembersCache<>(
+                    new ReflectionTypeHierarchy(), options.getMemberCacheSize());
+        }
     }
 
-    private void initReflections() {
-        if (ClasspathHelper.forPackage(packagePath).size() == 0) {
+    /**
+     * Reads the {@link ScanIndex} of every URL of the package if they all have an up-to-date one, otherwise
+     * scans the URLs concurrently; Reflections shuts the executor down when it is done.
+     */
+    private TypeScan scanPackage() {
+        Collection<URL> urls = ClasspathHelper.forPackage(packagePath);
+        if (urls.size() == 0) {
             throw new IllegalArgumentException("Invalid package path");
         }
-        reflections = new Reflections(new ConfigurationBuilder()
-                .setUrls(ClasspathHelper.forPackage(packagePath))
+        if (options.isUseScanIndex()) {
+            AnalyzerCaches caches = options.getCaches();
+            List<ScanIndex> indexes = new ArrayList<>();
+            for (URL url : urls) {
+                // shared caches open every location once and serve class files from its index
+                Optional<ScanIndex> index = Objects.isNull(caches)
+                        ? openScanIndex(url)
+                        : caches.getScanIndex(url, Analyzer::openScanIndex);
+                index.ifPresent(indexes::add);
+            }
+            if (indexes.size() == urls.size()) {
+                scanIndexes = indexes;
+                return ClassFileTypeScan.scan(indexes, packagePath);
+            }
+        }
+        ConfigurationBuilder configuration = new ConfigurationBuilder()
+                .setUrls(urls)
                 .setScanners(new SubTypesScanner(false))
-                .filterInputsBy(new FilterBuilder().include(FilterBuilder.prefix(packagePath))));
+                .filterInputsBy(new FilterBuilder().include(FilterBuilder.prefix(packagePath)));
+        if (urls.size() > 1 && options.getLoadingParallelism() > 1) {
+            configuration.setExecutorService(ConcurrentLoader.newExecutor(
+                    Math.min(urls.size(), options.getLoadingParallelism())));
+        }
+        return new ReflectionsTypeScan(new Reflections(configuration));
+    }
+
+    /**
+     * @return index of {@code url} if it is a directory or JAR that has an up-to-date one
+     */
+    private static Optional<ScanIndex> openScanIndex(URL url) {
+        try {
+            // JARs are reported as jar:file:...!/
+            String location = url.toExternalForm();
+            if (location.startsWith(JAR_URL_PREFIX) && location.endsWith(JAR_URL_SUFFIX)) {
+                location = location.substring(JAR_URL_PREFIX.length(), location.length() - JAR_URL_SUFFIX.length());
+            }
+            Path path = Paths.get(new URI(location));
+            if (Files.isDirectory(path)) {
+                return ScanIndex.open(path);
+            }
+            if (Files.isRegularFile(path)) {
+                // the index of a JAR is read onto the heap, so its file system is not needed afterwards
+                try (FileSystem fileSystem = FileSystems.newFileSystem(path, (ClassLoader) null)) {
+                    return ScanIndex.open(fileSystem.getRootDirectories().iterator().next());
+                }
+            }
+        } catch (URISyntaxException | IOException | RuntimeException e) {
+            // not a local directory or JAR, scanned through Reflections
+        }
+        return Optional.empty();
     }
 
+    private void initClassInfoRepository() {
+        classInfoRepository = new ClassInfoRepository(ClassFileSource.of(classLoader), scanIndexes);
+    }
+
+    /**
+     * The returned {@link Result} keeps per-class metrics in a {@link MetricsTable};
+     * its {@link ClassMetrics} list is a view over that table without {@code clazz} references.
+     * With {@link AnalyzerOptions#getSampling() sampling} only the sampled classes are listed.
+     */
     public Result calculateMetrics() {
-        Set<Class<?>> classes = getAllClasses();
-        List<ClassMetrics> classMetrics = getAllMetricsForClasses(classes);
+        return Objects.nonNull(options.getSampling())
+                ? collectClassMetrics(this::estimateMetrics)
+                : calculateMetrics(loadMetricsCache());
+    }
 
-        Result result = Result.builder()
-                .classMetrics(classMetrics)
-                .build();
+    /**
+     * Same as {@link #calculateMetrics()}, but reuses and fills {@code cache} instead of the configured cache file.
+     * Every class is analyzed, whatever the sampling options.
+     */
+    Result calculateMetrics(MetricsCache cache) {
+        return collectClassMetrics(sink -> calculateMetrics(sink, cache));
+    }
 
-        calculateMethodInheritanceFactor(classMetrics, result);
-        calculateMethodHidingFactor(classMetrics, result);
-        calculateAttributeHidingFactor(classMetrics, result);
-        calculateAttributeInheritanceFactor(classMetrics, result);
-        calculatePolymorphismObjectFactor(classMetrics, result);
+    private static Result collectClassMetrics(Function<Consumer<ClassMetrics>, Result> run) {
+        MetricsTable.Builder metricsTable = new MetricsTable.Builder();
+        Result result = run.apply(metricsTable::add);
+        result.setMetricsTable(metricsTable.build());
+        result.setClassMetrics(result.getMetricsTable().asClassMetricsList());
+        return result;
+    }
+
+    /**
+     * Streaming variant of {@link #calculateMetrics()}: every {@link ClassMetrics} is handed to {@code sink}
+     * as soon as its batch is done and is not retained afterwards, so the returned {@link Result} carries
+     * the MOOD factors but an empty class list. Classes reach the sink in the same order in every mode.
+     */
+    public Result calculateMetrics(Consumer<ClassMetrics> sink) {
+        return Objects.nonNull(options.getSampling())
+                ? estimateMetrics(sink)
+                : calculateMetrics(sink, loadMetricsCache());
+    }
+
+    /**
+     * @param metricsCache per-class metrics of earlier runs, {@code null} to analyze every class
+     */
+    private Result calculateMetrics(Consumer<ClassMetrics> sink, MetricsCache metricsCache) {
+        startRun();
+        List<String> classNames = getAllClassNames();
+        MetricsCache cache = isCacheable(metrics) ? metricsCache : null;
+        List<String> loadedClassNames = statistics.time(Phase.CLASS_LOADING,
+                () -> preload(classNames, Objects.isNull(cache)));
+        if (inputs.contains(MetricInput.HIERARCHY)) {
+            statistics.time(Phase.HIERARCHY_INDEX, () -> initHierarchyIndex(loadedClassNames, false));
+        }
+
+        MetricsAccumulator accumulator = new MetricsAccumulator();
+        PackageAccumulator packages = new PackageAccumulator();
+        for (List<String> batch : Lists.partition(loadedClassNames, BATCH_SIZE)) {
+            if (skipIfRunOver(batch)) {
+                continue;
+            }
+            List<ClassMetrics> classMetrics = Objects.isNull(cache)
+                    ? getAllMetrics(batch)
+                    : getAllMetricsIncrementally(batch, cache);
+            statistics.time(Phase.AGGREGATION, () -> classMetrics.forEach(cm -> {
+                accumulator.add(cm);
+                packages.add(cm);
+            }));
+            classMetrics.forEach(sink);
+        }
+
+        if (Objects.nonNull(cache)) {
+            saveMetricsCache(cache, classNames);
+        }
+        Result result = accumulator.toResult(List.of());
+        result.setBuiltInMetrics(MetricPlugins.builtInAmong(metrics));
+        statistics.time(Phase.AGGREGATION, () -> result.setPackageMetrics(packages.build()));
+        result.setSkippedClasses(List.copyOf(skippedClasses.values()));
+        result.setStatistics(completeRun());
+        return result;
+    }
 
+    /**
+     * Analyzes a {@link StratifiedSample} of the classes instead of all of them: only the sampled classes are
+     * loaded, and of their ancestors only what their metrics read, through a lazily built hierarchy index.
+     * Without a fixed sample size the sample grows in rounds until the target error is reached.
+     * Sampled classes reach {@code sink} in name order per round.
+     */
+    private Result estimateMetrics(Consumer<ClassMetrics> sink) {
+        Sampling sampling = options.getSampling();
+        sampling.validate();
+        startRun();
+        List<String> classNames = getAllClassNames();
+        statistics.time(Phase.HIERARCHY_INDEX, () -> initHierarchyIndex(classNames, true));
+        StratifiedSample sample = StratifiedSample.of(classNames, hierarchyIndex, sampling.getSeed());
+
+        int sampleSize = sampling.getSampleSize() > 0 ? sampling.getSampleSize() : StratifiedSample.PILOT_SAMPLE_SIZE;
+        Result result;
+        while (true) {
+            List<String> sampledClassNames = sample.grow(sampleSize);
+            List<String> loadedClassNames = statistics.time(Phase.CLASS_LOADING,
+                    () -> preload(sampledClassNames, true));
+            for (List<String> batch : Lists.partition(loadedClassNames, BATCH_SIZE)) {
+                if (skipIfRunOver(batch)) {
+                    continue;
+                }
+                List<ClassMetrics> classMetrics = getAllMetrics(batch);
+                statistics.time(Phase.AGGREGATION, () -> classMetrics.forEach(sample::add));
+                classMetrics.forEach(sink);
+            }
+            result = statistics.time(Phase.AGGREGATION, () -> sample.toResult(sampling.getConfidenceLevel()));
+            if (sampling.getSampleSize() > 0 || sample.isComplete() || timeBudget.isRunOver()
+                    || result.getEstimate().getMaxHalfWidth() <= sampling.getTargetError()) {
+                break;
+            }
+            sampleSize = sample.getRequiredSampleSize(result.getEstimate(), sampling.getTargetError());
+        }
+        result.setBuiltInMetrics(MetricPlugins.builtInAmong(metrics));
+        result.setSkippedClasses(List.copyOf(skippedClasses.values()));
+        result.setStatistics(completeRun());
         return result;
     }
 
-    private void calculateMethodInheritanceFactor(List<ClassMetrics> classMetrics, Result result) {
-        double sumOfInheritedAndNonOverrideMethods = classMetrics.stream()
-                .mapToDouble(ClassMetrics::getNumOfInheritedAndNonOverrideMethods)
-                .sum();
-        double sumOfAccessibleMethods = classMetrics.stream()
-                .mapToDouble(ClassMetrics::getNumOfAccessibleMethods)
-                .sum();
-        result.setSumOfInheritedAndNonOverrideMethods(sumOfInheritedAndNonOverrideMethods);
-        result.setSumOfAccessibleMethods(sumOfAccessibleMethods);
-        result.setMethodInheritanceFactor(sumOfInheritedAndNonOverrideMethods / sumOfAccessibleMethods);
-    }
-
-    private void calculateMethodHidingFactor(List<ClassMetrics> classMetrics, Result result) {
-        double sumOfPrivateMethods = classMetrics.stream()
-                .mapToDouble(ClassMetrics::getNumOfPrivateMethods)
-                .sum();
-        double sumOfOpenMethods = classMetrics.stream()
-                .mapToDouble(ClassMetrics::getNumOfOpenMethods)
-                .sum();
-        result.setSumOfPrivateMethods(sumOfPrivateMethods);
-        result.setSumOfOpenMethods(sumOfOpenMethods);
-        result.setMethodHidingFactor(sumOfPrivateMethods / (sumOfPrivateMethods + sumOfOpenMethods));
-    }
-
-    private void calculateAttributeHidingFactor(List<ClassMetrics> classMetrics, Result result) {
-        double numOfPrivateFields = classMetrics.stream()
-                .mapToDouble(ClassMetrics::getNumOfPrivateFields)
-                .sum();
-        double numOfFields = classMetrics.stream()
-                .mapToDouble(ClassMetrics::getNumOfFields)
-                .sum();
-        result.setSumOfPrivateFields(numOfPrivateFields);
-        result.setSumOfFields(numOfFields);
-        result.setAttributeHidingFactor(numOfPrivateFields / numOfFields);
-    }
-
-    private void calculateAttributeInheritanceFactor(List<ClassMetrics> classMetrics, Result result) {
-        double sumOfInheritedAndNonOverrideFields = classMetrics.stream()
-                .mapToDouble(ClassMetrics::getNumOfInheritedAndNonOverrideFields)
-                .sum();
-        double sumOfAccessibleFields = classMetrics.stream()
-                .mapToDouble(ClassMetrics::getNumOfAccessibleFields)
-                .sum();
-        result.setSumOfInheritedAndNonOverrideFields(sumOfInheritedAndNonOverrideFields);
-        result.setSumOfAccessibleFields(sumOfAccessibleFields);
-        result.setAttributeInheritanceFactor(sumOfInheritedAndNonOverrideFields / sumOfAccessibleFields);
-    }
-
-    private void calculatePolymorphismObjectFactor(List<ClassMetrics> classMetrics, Result result) {
-        double sumOfInheritedAndOverrideMethods = classMetrics.stream()
-                .mapToDouble(ClassMetrics::getNumOfInheritedAndOverrideMethods)
-                .sum();
-        double newMethodsCoefficient = classMetrics.stream()
-                .mapToDouble(cm -> cm.getNumOfNewMethods() * cm.getNumOfChildren())
-                .sum();
-        result.setSumOfInheritedAndOverrideMethods(sumOfInheritedAndOverrideMethods);
-        result.setNewMethodsCoefficient(newMethodsCoefficient);
-        result.setPolymorphismObjectFactor(sumOfInheritedAndOverrideMethods / newMethodsCoefficient);
-    }
-
-    private List<ClassMetrics> getAllMetricsForClasses(Collection<Class<?>> classes) {
-        return classes.stream()
-                .map(clazz -> {
-                    ClassMetrics cm = new ClassMetrics(clazz);
-                    cm.setDepthOfInheritanceTree(calculateDepthOfInheritanceTree(clazz));
-                    cm.setNumOfChildren(calculateNumberOfChildren(clazz));
-                    calculateMethodInheritanceCoefficients(cm);
-                    calculateMethodHidingCoefficients(cm);
-                    calculateAttributeInheritanceCoefficients(cm);
-                    calculateAttributeHidingCoefficients(cm);
-                    calculatePolymorphismObjectCoefficients(cm);
-                    return cm;
-                })
+    /**
+     * Streams every class and then the summary to {@code reportWriter}, and flushes it.
+     */
+    public Result calculateMetrics(ReportWriter reportWriter) throws IOException {
+        reportWriter.startReport(MetricPlugins.builtInAmong(metrics));
+        Result result;
+        try {
+            result = calculateMetrics(cm -> {
+                try {
+                    reportWriter.writeClassMetrics(cm);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        reportWriter.writeSummary(result);
+        reportWriter.flush();
+        return result;
+    }
+
+    private void startRun() {
+        timeBudget.close();
+        timeBudget = new TimeBudget(options.getClassTimeBudget(), options.getRunTimeBudget());
+        skippedClasses.clear();
+    }
+
+    /**
+     * Snapshots the statistics of the run that just finished, publishes them to the
+     * {@link AnalyzerMonitor} and starts counting the next run from zero.
+     */
+    private StatisticsSnapshot completeRun() {
+        timeBudget.close();
+        long numOfClassesOverRunBudget = skippedClasses.values().stream()
+                .filter(skippedClass -> skippedClass.getReason().equals(TimeBudget.RUN_BUDGET_EXHAUSTED))
+                .count();
+        if (numOfClassesOverRunBudget > 0) {
+            System.err.println(TimeBudget.RUN_BUDGET_EXHAUSTED + ", skipped " + numOfClassesOverRunBudget + " classes");
+        }
+        StatisticsSnapshot snapshot = statistics.snapshot();
+        statistics = new AnalyzerStatistics();
+        AnalyzerMonitor.getInstance().record(snapshot);
+        return snapshot;
+    }
+
+    private List<ClassMetrics> getAllMetrics(List<String> classNames) {
+        return options.getEngine() == Engine.BYTECODE
+                ? getAllMetrics(statistics.time(Phase.CLASS_LOADING, () -> getAllClassInfos(classNames)),
+                ClassInfo::getName, this::getMetricsForClassInfo)
+                : getAllMetrics(statistics.time(Phase.CLASS_LOADING, () -> getAllClasses(classNames)),
+                Class::getName, this::getMetricsForClass);
+    }
+
+    private MetricsCache loadMetricsCache() {
+        return Objects.isNull(options.getMetricsCacheFile())
+                ? null
+                : MetricsCache.load(options.getMetricsCacheFile());
+    }
+
+    /**
+     * The cache stores built-in metrics only.
+     */
+    private static boolean isCacheable(List<MetricPlugin> metrics) {
+        return metrics.stream().allMatch(metric -> metric instanceof BuiltInMetric);
+    }
+
+    /**
+     * Suffix that keeps entries computed for a subset of the metrics apart from complete ones.
+     */
+    private String getCacheKeySuffix() {
+        return metrics.equals(MetricPlugins.builtIn())
+                ? ""
+                : metrics.stream().map(MetricPlugin::getName).collect(Collectors.joining(",", "/", ""));
+    }
+
+    /**
+     * Reuses cached metrics of every class whose hierarchy hash is unchanged and analyzes only the rest.
+     */
+    private List<ClassMetrics> getAllMetricsIncrementally(List<String> classNames, MetricsCache cache) {
+        Map<String, String> keys = new HashMap<>();
+        Map<String, ClassMetrics> classMetricsByName = new HashMap<>();
+        List<String> changedClassNames = new ArrayList<>();
+        String keySuffix = getCacheKeySuffix();
+        boolean numOfChildrenSelected = isNumOfChildrenSelected();
+        for (String className : classNames) {
+            HashCode hierarchyHash = analyzeWithinBudget(className,
+                    () -> classInfoRepository.getHierarchyHash(classInfoRepository.get(className)));
+            if (Objects.isNull(hierarchyHash)) {
+                continue;
+            }
+            String key = hierarchyHash + keySuffix;
+            keys.put(className, key);
+            ClassMetrics cm = cache.get(className, key);
+            if (Objects.isNull(cm)) {
+                changedClassNames.add(className);
+            } else {
+                if (numOfChildrenSelected) {
+                    cm.setNumOfChildren(calculateNumberOfChildren(className));
+                }
+                classMetricsByName.put(className, cm);
+                statistics.recordClassFromCache();
+            }
+        }
+
+        for (ClassMetrics cm : getAllMetrics(changedClassNames)) {
+            cache.put(keys.get(cm.getClassName()), cm);
+            classMetricsByName.put(cm.getClassName(), cm);
+        }
+
+        return classNames.stream()
+                .map(classMetricsByName::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toUnmodifiableList());
     }
 
-    private void calculateMethodInheritanceCoefficients(ClassMetrics classMetrics) {
-        Class<?> clazz = classMetrics.getClazz();
+    /**
+     * Analyzes {@code classNames} again against the current state of the type scan and the class files.
+     * The hierarchy index is rebuilt for all scanned types first; that pass reads no members.
+     */
+    List<ClassMetrics> recalculateMetrics(List<String> classNames) {
+        startRun();
+        List<String> loadedClassNames = statistics.time(Phase.CLASS_LOADING, () -> preload(classNames, true));
+        if (inputs.contains(MetricInput.HIERARCHY)) {
+            statistics.time(Phase.HIERARCHY_INDEX, () -> initHierarchyIndex(getAllClassNames(), false));
+        }
+        List<ClassMetrics> classMetrics = getAllMetrics(loadedClassNames);
+        completeRun();
+        return classMetrics;
+    }
 
-        Set<Method> accessibleMethods = getAccessibleMethods(clazz);
-        Set<Method> inheritedAndNonOverrideMethods = accessibleMethods.stream()
-                .filter(accessibleMethod -> getDeclaredMethods(clazz).stream()
-                        .noneMatch(declaredMethod -> equalMethods(accessibleMethod, declaredMethod)))
-                .collect(Collectors.toUnmodifiableSet());
+    /**
+     * @return children count of a scanned class as of the last run, {@code 0} when neither NOC nor POF is selected
+     */
+    int getNumOfChildren(String className) {
+        return isNumOfChildrenSelected() ? calculateNumberOfChildren(className) : 0;
+    }
 
-        classMetrics.setNumOfAccessibleMethods(accessibleMethods.size());
-        classMetrics.setNumOfInheritedAndNonOverrideMethods(inheritedAndNonOverrideMethods.size());
+    private boolean isNumOfChildrenSelected() {
+        return metrics.contains(BuiltInMetric.NOC) || metrics.contains(BuiltInMetric.POF);
     }
 
-    private void calculateMethodHidingCoefficients(ClassMetrics classMetrics) {
-        Class<?> clazz = classMetrics.getClazz();
+    private void saveMetricsCache(MetricsCache cache, List<String> classNames) {
+        cache.retainAll(classNames);
+        if (!cache.isPersistent()) {
+            return;
+        }
+        try {
+            cache.save();
+        } catch (IOException e) {
+            System.err.println("Cannot save metrics cache: " + e);
+        }
+    }
 
-        Set<Method> privateMethods = getPrivateMethods(clazz);
-        Set<Method> openMethods = getOpenMethods(clazz);
+    /**
+     * Applies {@code metricsFunction} to every type within the time budget, on the configured executor
+     * if there is one. Metrics are returned in the order of {@code types} regardless of how the work
+     * was scheduled; skipped types are left out.
+     */
+    private <T> List<ClassMetrics> getAllMetrics(List<T> types, Function<T, String> nameFunction,
+                                                 Function<T, ClassMetrics> metricsFunction) {
+        Function<T, ClassMetrics> task = type ->
+                analyzeWithinBudget(nameFunction.apply(type), () -> metricsFunction.apply(type));
+        ExecutorService executor = options.getExecutor();
+        if (Objects.isNull(executor)) {
+            return types.stream()
+                    .map(task)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toUnmodifiableList());
+        }
 
-        classMetrics.setNumOfPrivateMethods(privateMethods.size());
-        classMetrics.setNumOfOpenMethods(openMethods.size());
+        List<Callable<ClassMetrics>> tasks = types.stream()
+                .map(type -> (Callable<ClassMetrics>) () -> task.apply(type))
+                .collect(Collectors.toList());
+        try {
+            List<ClassMetrics> classMetrics = new ArrayList<>(tasks.size());
+            for (Future<ClassMetrics> future : executor.invokeAll(tasks)) {
+                ClassMetrics cm = future.get();
+                if (Objects.nonNull(cm)) {
+                    classMetrics.add(cm);
+                }
+            }
+            return Collections.unmodifiableList(classMetrics);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calculating metrics", e);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
     }
 
-    private void calculateAttributeInheritanceCoefficients(ClassMetrics classMetrics) {
-        Class<?> clazz = classMetrics.getClazz();
+    /**
+     * Runs the work on one class within the {@link TimeBudget}. In resilient mode a failure skips the class
+     * and returns {@code null}; otherwise it ends the run.
+     */
+    private <T> T analyzeWithinBudget(String className, Callable<T> task) {
+        try {
+            return timeBudget.call(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calculating metrics", e);
+        } catch (Exception | LinkageError e) {
+            if (!options.isResilient()) {
+                Throwables.throwIfUnchecked(e);
+                throw new IllegalStateException("Cannot analyze class " + className, e);
+            }
+            skip(className, e);
+            return null;
+        }
+    }
 
-        Set<Field> accessibleFields = getAccessibleFields(clazz);
-        Set<Field> inheritedAndNonOverrideFields = accessibleFields.stream()
-                .filter(accessibleField -> getDeclaredForInheritanceFields(clazz).stream()
-                        .noneMatch(declaredField -> equalFields(accessibleField, declaredField)))
-                .collect(Collectors.toUnmodifiableSet());
+    private void skip(String className, Throwable cause) {
+        if (timeBudget.isRunOver() && TimeBudget.isRunBudgetExhausted(cause)) {
+            // every class left fails for the same reason, so completeRun reports them in one line
+            skippedClasses.put(className, new SkippedClass(className, TimeBudget.RUN_BUDGET_EXHAUSTED));
+            return;
+        }
+        System.err.println("Skipping class " + className + ": " + cause);
+        skippedClasses.put(className, new SkippedClass(className, cause));
+    }
 
-        classMetrics.setNumOfAccessibleFields(accessibleFields.size());
-        classMetrics.setNumOfInheritedAndNonOverrideFields(inheritedAndNonOverrideFields.size());
+    /**
+     * In resilient mode, once the run is over its budget, records {@code classNames} as skipped
+     * without attempting them.
+     *
+     * @return whether {@code classNames} were skipped
+     */
+    private boolean skipIfRunOver(List<String> classNames) {
+        if (!options.isResilient() || !timeBudget.isRunOver()) {
+            return false;
+        }
+        for (String className : classNames) {
+            skippedClasses.put(className, new SkippedClass(className, TimeBudget.RUN_BUDGET_EXHAUSTED));
+        }
+        return true;
     }
 
-    private void calculateAttributeHidingCoefficients(ClassMetrics classMetrics) {
-        Class<?> clazz = classMetrics.getClazz();
+    private ClassMetrics getMetricsForClass(Class<?> clazz) {
+        return calculateMetrics(new ClassMetrics(clazz),
+                new ReflectionMetricContext(clazz, inputs, hierarchyIndex, inheritedMembersCache));
+    }
+
+    private ClassMetrics getMetricsForClassInfo(ClassInfo classInfo) {
+        return calculateMetrics(new ClassMetrics(classInfo.getName()),
+                new BytecodeMetricContext(classInfo, inputs, hierarchyIndex, inheritedClassInfoMembersCache));
+    }
+
+    private ClassMetrics calculateMetrics(ClassMetrics cm, MetricContext context) {
+        for (MetricPlugin metric : metrics) {
+            Phase phase = getPhase(metric);
+            if (Objects.isNull(phase)) {
+                metric.calculate(context, cm);
+            } else {
+                statistics.time(phase, () -> metric.calculate(context, cm));
+            }
+        }
+        statistics.recordClass(cm);
+        return cm;
+    }
 
-        Set<Field> privateFields = getPrivateFields(clazz);
-        Set<Field> allDeclaredFields = getAllDeclaredFields(clazz);
+    /**
+     * @return phase the time of {@code metric} is recorded under, {@code null} for the index lookups of DIT and NOC
+     */
+    private static Phase getPhase(MetricPlugin metric) {
+        if (!(metric instanceof BuiltInMetric)) {
+            return Phase.ADDITIONAL_METRICS;
+        }
+        switch ((BuiltInMetric) metric) {
+            case MIF:
+                return Phase.METHOD_INHERITANCE;
+            case MHF:
+                return Phase.METHOD_HIDING;
+            case AIF:
+                return Phase.ATTRIBUTE_INHERITANCE;
+            case AHF:
+                return Phase.ATTRIBUTE_HIDING;
+            case POF:
+                return Phase.POLYMORPHISM;
+            default:
+                return null;
+        }
+    }
 
-        classMetrics.setNumOfPrivateFields(privateFields.size());
-        classMetrics.setNumOfFields(allDeclaredFields.size());
+    private List<String> getAllClassNames() {
+        return typeScan.getAllTypes().stream()
+                .sorted()
+                .collect(Collectors.toUnmodifiableList());
     }
 
-    private void calculatePolymorphismObjectCoefficients(ClassMetrics classMetrics) {
-        Class<?> clazz = classMetrics.getClazz();
+    /**
+     * Reads, and for the reflection engine defines, the classes to analyze on a {@link ConcurrentLoader},
+     * so that the sequential passes that follow find them loaded. All failures are reported before
+     * the first one is thrown, or in resilient mode before the failed classes are skipped.
+     *
+     * @param analyzeAll whether every class is analyzed; otherwise the metrics cache decides which classes
+     *                   are loaded through reflection
+     * @return classes that were loaded
+     */
+    private List<String> preload(List<String> classNames, boolean analyzeAll) {
+        ConcurrentLoader loader = new ConcurrentLoader(options.getLoadingParallelism());
+        List<String> loadedClassNames = classNames;
+        if (Objects.nonNull(classInfoRepository)) {
+            ConcurrentLoader.Outcome<String, ClassInfo> outcome = loader.load(loadedClassNames, this::readClassInfo);
+            loadedClassNames = handleLoadFailures(loadedClassNames, outcome, failure -> {
+                Throwables.throwIfUnchecked(failure);
+                throw new IllegalStateException(failure);
+            });
+        }
+        if (options.getEngine() == Engine.REFLECTION && analyzeAll) {
+            ConcurrentLoader.Outcome<String, Class<?>> outcome = loader.load(loadedClassNames, className -> {
+                timeBudget.checkDeadline();
+                return Class.forName(className, false, classLoader);
+            });
+            loadedClassNames = handleLoadFailures(loadedClassNames, outcome, failure -> {
+                throw new IllegalArgumentException(failure);
+            });
+        }
+        return loadedClassNames;
+    }
 
-        Set<Method> inheritedAndOverriddenMethods = getInheritedAndOverriddenMethods(clazz);
-        Set<Method> newMethods = getDeclaredMethods(clazz).stream()
-                .filter(m1 -> inheritedAndOverriddenMethods.stream()
-                        .noneMatch(m2 -> equalMethods(m1, m2)))
-                .collect(Collectors.toUnmodifiableSet());
+    private ClassInfo readClassInfo(String className) throws TimeoutException {
+        timeBudget.checkDeadline();
+        ClassInfo classInfo = classInfoRepository.get(className);
+        if (options.isResilient()) {
+            // a missing superclass would fail the hierarchy index of every class, so it fails this one here
+            for (ClassInfo type = classInfo; Objects.nonNull(type); ) {
+                type = classInfoRepository.getSuperclass(type);
+            }
+        }
+        return classInfo;
+    }
 
-        classMetrics.setNumOfInheritedAndOverrideMethods(inheritedAndOverriddenMethods.size());
-        classMetrics.setNumOfNewMethods(newMethods.size());
+    /**
+     * @param fail throws the first failure when the run is not resilient
+     * @return classes that did not fail
+     */
+    private List<String> handleLoadFailures(List<String> classNames, ConcurrentLoader.Outcome<String, ?> outcome,
+                                            Consumer<Throwable> fail) {
+        Map<String, Throwable> failures = outcome.getFailures();
+        if (failures.isEmpty()) {
+            return classNames;
+        }
+        for (String className : failures.keySet()) {
+            statistics.recordClassLoadFailure();
+            if (!options.isResilient()) {
+                System.err.println("Cannot load class:" + className);
+            }
+        }
+        if (!options.isResilient()) {
+            outcome.getFailure().ifPresent(fail);
+        }
+        // resilient runs report every class once, when it is skipped
+        failures.forEach(this::skip);
+        return classNames.stream()
+                .filter(className -> !failures.containsKey(className))
+                .collect(Collectors.toUnmodifiableList());
     }
 
-    private Set<Class<?>> getAllClasses() {
-        Set<String> classNames = reflections.getAllTypes();
-        Set<Class<?>> classes = new HashSet<>();
+    /**
+     * Initializes the classes {@link #preload preloaded} before, sequentially and in order,
+     * as static initializers of different classes may depend on each other.
+     */
+    private List<Class<?>> getAllClasses(List<String> classNames) {
+        List<Class<?>> classes = new ArrayList<>();
         classNames.forEach(className -> {
-            try {
-                classes.add(Class.forName(className));
-            } catch (Exception | Error e) {
-                System.err.println("Cannot load class:" + className);
-                throw new IllegalArgumentException(e);
+            Class<?> clazz = analyzeWithinBudget(className, () -> initializeClass(className));
+            if (Objects.nonNull(clazz)) {
+                classes.add(clazz);
             }
-//            catch (NoClassDefFoundError e) {
-//                System.err.println("Class " + className + " not found at runtime");
-//            } catch (Exception | Error e) {
-//                System.err.println("Class " + className + " cannot be loaded: " + e.getMessage());
-//            }
         });
         return classes;
     }
 
-    private int calculateNumberOfChildren(Class<?> clazz) {
-        return reflections.getStore().get(SubTypesScanner.class, clazz.getName()).size();
+    private Class<?> initializeClass(String className) throws ClassNotFoundException {
+        try {
+            return Class.forName(className, true, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            statistics.recordClassLoadFailure();
+            if (options.isResilient()) {
+                throw e;
+            }
+            System.err.println("Cannot load class:" + className);
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private List<ClassInfo> getAllClassInfos(List<String> classNames) {
+        List<ClassInfo> classInfos = new ArrayList<>();
+        classNames.forEach(className -> classInfos.add(classInfoRepository.get(className)));
+        return classInfos;
+    }
+
+    /**
+     * Indexes the scanned hierarchy once, through the class files when they are parsed anyway
+     * and through classes loaded without initialization otherwise.
+     *
+     * @param lazily whether depths are only resolved for the classes that are analyzed
+     */
+    private void initHierarchyIndex(List<String> classNames, boolean lazily) {
+        if (Objects.nonNull(classInfoRepository)) {
+            BytecodeTypeHierarchy hierarchy = new BytecodeTypeHierarchy(classInfoRepository);
+            hierarchyIndex = lazily
+                    ? HierarchyIndex.buildLazily(classNames, typeScan, hierarchy, classInfoRepository::get)
+                    : HierarchyIndex.build(classNames, typeScan, hierarchy, classInfoRepository::get);
+        } else {
+            ReflectionTypeHierarchy hierarchy = new ReflectionTypeHierarchy();
+            hierarchyIndex = lazily
+                    ? HierarchyIndex.buildLazily(classNames, typeScan, hierarchy, this::loadClass)
+                    : HierarchyIndex.build(classNames, typeScan, hierarchy, this::loadClass);
+        }
+    }
+
+    private Class<?> loadClass(String className) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (Exception | Error e) {
+            statistics.recordClassLoadFailure();
+            if (!options.isResilient()) {
+                System.err.println("Cannot load class:" + className);
+            }
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private int calculateNumberOfChildren(String className) {
+        return hierarchyIndex.getNumOfChildren(hierarchyIndex.indexOf(className));
     }
 
 }
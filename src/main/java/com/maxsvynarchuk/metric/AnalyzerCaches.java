@@ -0,0 +1,58 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.bytecode.BytecodeTypeHierarchy;
+import com.maxsvynarchuk.metric.bytecode.ClassInfo;
+import com.maxsvynarchuk.metric.bytecode.ClassInfoRepository;
+import com.maxsvynarchuk.metric.bytecode.ScanIndex;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Type-level state that outlives a single {@link Analyzer}: parsed class files, the {@link ScanIndex} of every
+ * class path location and the inherited members of every type. Analyzers of different packages created with
+ * the same instance through {@link AnalyzerOptions#getCaches()} resolve their common ancestors only once,
+ * and take the class files of indexed locations from their index.
+ * <p>
+ * Entries are never invalidated, so an instance must not outlive the class files it was filled from.
+ */
+@Getter
+public class AnalyzerCaches {
+    private final ClassLoader classLoader;
+    private final ClassInfoRepository classInfoRepository;
+    private final InheritedMembersCache<Class<?>> inheritedMembersCache;
+    private final InheritedMembersCache<ClassInfo> inheritedClassInfoMembersCache;
+    @Getter(AccessLevel.NONE)
+    private final Map<URL, Optional<ScanIndex>> scanIndexes = new ConcurrentHashMap<>();
+
+    public AnalyzerCaches(ClassLoader classLoader) {
+        this(classLoader, InheritedMembersCache.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public AnalyzerCaches(ClassLoader classLoader, long memberCacheSize) {
+        this.classLoader = Objects.requireNonNull(classLoader);
+        this.classInfoRepository = new ClassInfoRepository(classLoader);
+        this.inheritedMembersCache = new InheritedMembersCache<>(new ReflectionTypeHierarchy(), memberCacheSize);
+        this.inheritedClassInfoMembersCache = new InheritedMembersCache<>(
+                new BytecodeTypeHierarchy(classInfoRepository), memberCacheSize);
+    }
+
+    /**
+     * Opens the index of {@code url} on first use and adds it to the {@link #getClassInfoRepository() repository}.
+     *
+     * @return the index of {@code url}, empty if it has no up-to-date one
+     */
+    Optional<ScanIndex> getScanIndex(URL url, Function<URL, Optional<ScanIndex>> opener) {
+        return scanIndexes.computeIfAbsent(url, key -> {
+            Optional<ScanIndex> index = opener.apply(key);
+            index.ifPresent(classInfoRepository::addIndex);
+            return index;
+        });
+    }
+}
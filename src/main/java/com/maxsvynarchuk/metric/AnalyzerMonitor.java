@@ -0,0 +1,107 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.AnalyzerStatistics.Phase;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide {@link AnalyzerMonitorMXBean}, registered with the platform MBean server on first use.
+ */
+public final class AnalyzerMonitor implements AnalyzerMonitorMXBean {
+    public static final String OBJECT_NAME = "com.maxsvynarchuk.metric:type=Analyzer";
+
+    private static final AnalyzerMonitor INSTANCE = new AnalyzerMonitor();
+
+    private final Map<Phase, Long> phaseNanos = new LinkedHashMap<>();
+    private long numOfRuns;
+    private long numOfClassesAnalyzed;
+    private long numOfClassesFromCache;
+    private long numOfMethodsVisited;
+    private long numOfFieldsVisited;
+    private long numOfClassLoadFailures;
+    private StatisticsSnapshot lastRun;
+
+    static {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Cannot register analyzer MBean: " + e);
+        }
+    }
+
+    private AnalyzerMonitor() {
+    }
+
+    public static AnalyzerMonitor getInstance() {
+        return INSTANCE;
+    }
+
+    synchronized void record(StatisticsSnapshot snapshot) {
+        numOfRuns++;
+        numOfClassesAnalyzed += snapshot.getNumOfClassesAnalyzed();
+        numOfClassesFromCache += snapshot.getNumOfClassesFromCache();
+        numOfMethodsVisited += snapshot.getNumOfMethodsVisited();
+        numOfFieldsVisited += snapshot.getNumOfFieldsVisited();
+        numOfClassLoadFailures += snapshot.getNumOfClassLoadFailures();
+        snapshot.getPhaseNanos().forEach((phase, nanos) -> phaseNanos.merge(phase, nanos, Long::sum));
+        lastRun = snapshot;
+    }
+
+    @Override
+    public synchronized long getNumOfRuns() {
+        return numOfRuns;
+    }
+
+    @Override
+    public synchronized long getNumOfClassesAnalyzed() {
+        return numOfClassesAnalyzed;
+    }
+
+    @Override
+    public synchronized long getNumOfClassesFromCache() {
+        return numOfClassesFromCache;
+    }
+
+    @Override
+    public synchronized long getNumOfMethodsVisited() {
+        return numOfMethodsVisited;
+    }
+
+    @Override
+    public synchronized long getNumOfFieldsVisited() {
+        return numOfFieldsVisited;
+    }
+
+    @Override
+    public synchronized long getNumOfClassLoadFailures() {
+        return numOfClassLoadFailures;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getPhaseMillis() {
+        return toMillis(phaseNanos);
+    }
+
+    @Override
+    public synchronized Map<String, Long> getLastRunPhaseMillis() {
+        return Objects.isNull(lastRun) ? Collections.emptyMap() : toMillis(lastRun.getPhaseNanos());
+    }
+
+    private static Map<String, Long> toMillis(Map<Phase, Long> nanos) {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        nanos.forEach((phase, value) -> millis.put(phase.name(), TimeUnit.NANOSECONDS.toMillis(value)));
+        return millis;
+    }
+}
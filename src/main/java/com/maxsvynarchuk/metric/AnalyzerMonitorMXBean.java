@@ -0,0 +1,31 @@
+package com.maxsvynarchuk.metric;
+
+import java.util.Map;
+
+/**
+ * Totals over every analysis run of this JVM, registered as {@value AnalyzerMonitor#OBJECT_NAME}.
+ */
+public interface AnalyzerMonitorMXBean {
+
+    long getNumOfRuns();
+
+    long getNumOfClassesAnalyzed();
+
+    long getNumOfClassesFromCache();
+
+    long getNumOfMethodsVisited();
+
+    long getNumOfFieldsVisited();
+
+    long getNumOfClassLoadFailures();
+
+    /**
+     * @return milliseconds spent per phase, keyed by {@link AnalyzerStatistics.Phase} name
+     */
+    Map<String, Long> getPhaseMillis();
+
+    /**
+     * @return milliseconds spent per phase in the most recent run
+     */
+    Map<String, Long> getLastRunPhaseMillis();
+}
@@ -0,0 +1,89 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.plugin.MetricPlugin;
+import com.maxsvynarchuk.metric.plugin.MetricPlugins;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+@Builder(toBuilder = true)
+@Getter
+public class AnalyzerOptions {
+    @Builder.Default
+    private final Engine engine = Engine.REFLECTION;
+
+    /**
+     * Upper bound of types kept in the inherited members cache.
+     */
+    @Builder.Default
+    private final long memberCacheSize = InheritedMembersCache.DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * Executor that computes per-class metrics in parallel, e.g. a {@link java.util.concurrent.ForkJoinPool}.
+     * When {@code null}, classes are processed sequentially on the calling thread.
+     * The executor is not shut down by the analyzer.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Threads that scan, read and define classes before they are analyzed; see {@link ConcurrentLoader}.
+     * {@code 1} does all of it on the calling thread.
+     */
+    @Builder.Default
+    private final int loadingParallelism = ConcurrentLoader.DEFAULT_PARALLELISM;
+
+    /**
+     * Whether a {@link com.maxsvynarchuk.metric.bytecode.ScanIndex} written at build time replaces scanning
+     * and parsing the class files where one is present and up to date.
+     */
+    @Builder.Default
+    private final boolean useScanIndex = true;
+
+    /**
+     * When set, classes that cannot be read, loaded, initialized or analyzed, or that run out of time,
+     * are left out and listed in {@link Result#getSkippedClasses()}; otherwise the first such failure
+     * ends the run.
+     */
+    private final boolean resilient;
+
+    /**
+     * Time initializing a class and, separately, computing its metrics may take; {@code null} for no limit.
+     * A class over the budget counts as failed. See {@link TimeBudget}.
+     */
+    private final Duration classTimeBudget;
+
+    /**
+     * Time a run may take after the classes were scanned; {@code null} for no limit. Classes not analyzed
+     * when it is over count as failed.
+     */
+    private final Duration runTimeBudget;
+
+    /**
+     * When set, a run analyzes a stratified random sample of the classes and estimates the factors, with
+     * confidence intervals, instead of analyzing every class; {@code null} for an exact run.
+     */
+    private final Sampling sampling;
+
+    /**
+     * File of the persistent {@link MetricsCache}. When set, only classes whose class file or ancestry
+     * changed since the previous run are analyzed again.
+     */
+    private final Path metricsCacheFile;
+
+    /**
+     * Metrics to compute; only the inputs they declare are gathered. Values of the others stay {@code 0}.
+     * Third-party metrics bypass the {@link MetricsCache}, which only stores the built-in ones.
+     */
+    @Builder.Default
+    private final List<MetricPlugin> metrics = MetricPlugins.builtIn();
+
+    /**
+     * Caches shared with other analyzers of the same class loader; when {@code null} every analyzer
+     * starts cold. Only used for packages on the class path, artifacts always get fresh caches.
+     */
+    private final AnalyzerCaches caches;
+}
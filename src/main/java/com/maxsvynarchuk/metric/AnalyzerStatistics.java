@@ -0,0 +1,99 @@
+package com.maxsvynarchuk.metric;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters of one analysis run. Safe to update from the executor threads;
+ * phases that run per class add up the time spent on every thread.
+ */
+public class AnalyzerStatistics {
+
+    public enum Phase {
+        SCAN,
+        HIERARCHY_INDEX,
+        CLASS_LOADING,
+        METHOD_INHERITANCE,
+        METHOD_HIDING,
+        ATTRIBUTE_INHERITANCE,
+        ATTRIBUTE_HIDING,
+        POLYMORPHISM,
+        /**
+         * Metrics contributed by third-party plugins.
+         */
+        ADDITIONAL_METRICS,
+        AGGREGATION
+    }
+
+    private final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+    private final LongAdder numOfClassesAnalyzed = new LongAdder();
+    private final LongAdder numOfClassesFromCache = new LongAdder();
+    private final LongAdder numOfMethodsVisited = new LongAdder();
+    private final LongAdder numOfFieldsVisited = new LongAdder();
+    private final LongAdder numOfClassLoadFailures = new LongAdder();
+
+    public AnalyzerStatistics() {
+        for (Phase phase : Phase.values()) {
+            phaseNanos.put(phase, new LongAdder());
+        }
+    }
+
+    public <T> T time(Phase phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void time(Phase phase, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds time spent in {@code phase} that was measured by the caller, e.g. around work that throws checked
+     * exceptions.
+     */
+    public void record(Phase phase, long nanos) {
+        phaseNanos.get(phase).add(nanos);
+    }
+
+    /**
+     * Counts {@code cm} as analyzed together with the members that were looked at to compute it.
+     */
+    public void recordClass(ClassMetrics cm) {
+        numOfClassesAnalyzed.increment();
+        numOfMethodsVisited.add(cm.getNumOfAccessibleMethods() + cm.getNumOfPrivateMethods()
+                + cm.getNumOfOpenMethods());
+        numOfFieldsVisited.add(cm.getNumOfAccessibleFields() + cm.getNumOfFields());
+    }
+
+    public void recordClassFromCache() {
+        numOfClassesFromCache.increment();
+    }
+
+    public void recordClassLoadFailure() {
+        numOfClassLoadFailures.increment();
+    }
+
+    public StatisticsSnapshot snapshot() {
+        Map<Phase, Long> nanos = new EnumMap<>(Phase.class);
+        phaseNanos.forEach((phase, adder) -> nanos.put(phase, adder.sum()));
+        return StatisticsSnapshot.builder()
+                .phaseNanos(nanos)
+                .numOfClassesAnalyzed(numOfClassesAnalyzed.sum())
+                .numOfClassesFromCache(numOfClassesFromCache.sum())
+                .numOfMethodsVisited(numOfMethodsVisited.sum())
+                .numOfFieldsVisited(numOfFieldsVisited.sum())
+                .numOfClassLoadFailures(numOfClassLoadFailures.sum())
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.AnalyzerStatistics.Phase;
+import com.maxsvynarchuk.metric.bytecode.ClassFileSource;
+import com.maxsvynarchuk.metric.bytecode.ClassFileTypeScan;
+import com.maxsvynarchuk.metric.bytecode.ClassInfoRepository;
+import com.maxsvynarchuk.metric.bytecode.PathClassFileSource;
+import com.maxsvynarchuk.metric.bytecode.ScanIndex;
+import com.maxsvynarchuk.metric.report.ReportWriter;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Analyzes JARs and class directories that are not on the application class path.
+ * Every artifact gets its own class loader and zip file system, both dropped once
+ * its {@link Result} is built, so analyzing many artifacts does not accumulate classes.
+ */
+public class ArtifactAnalyzer {
+    private final String packagePrefix;
+    private final AnalyzerOptions options;
+
+    public ArtifactAnalyzer(AnalyzerOptions options) {
+        this("", options);
+    }
+
+    /**
+     * @param packagePrefix only classes whose name starts with it are analyzed, empty for all
+     */
+    public ArtifactAnalyzer(String packagePrefix, AnalyzerOptions options) {
+        this.packagePrefix = Objects.requireNonNull(packagePrefix);
+        this.options = Objects.requireNonNull(options);
+    }
+
+    public Result analyze(Path artifact) throws IOException {
+        try (ArtifactSession session = open(artifact)) {
+            return session.analyze();
+        }
+    }
+
+    /**
+     * Streams the report of {@code artifact} to {@code reportWriter} as its classes are analyzed.
+     */
+    public Result analyze(Path artifact, ReportWriter reportWriter) throws IOException {
+        try (ArtifactSession session = open(artifact)) {
+            return session.analyze(reportWriter);
+        }
+    }
+
+    /**
+     * @return results in the order of {@code artifacts}
+     */
+    public Map<Path, Result> analyzeAll(List<Path> artifacts) throws IOException {
+        Map<Path, Result> results = new LinkedHashMap<>();
+        for (Path artifact : artifacts) {
+            results.put(artifact, analyze(artifact));
+        }
+        return results;
+    }
+
+    /**
+     * Analyzes {@code baseline} and then {@code current}, two builds of the same code base. The second analysis
+     * reuses the metrics of every class whose class file and ancestors are identical in both, so it costs in
+     * proportion to the changed classes; with a {@link AnalyzerOptions#getMetricsCacheFile() cache file}
+     * the baseline is mostly read from the cache as well. Plugin metrics disable the reuse.
+     */
+    public Comparison compare(Path baseline, Path current) throws IOException {
+        MetricsCache cache = Objects.isNull(options.getMetricsCacheFile())
+                ? MetricsCache.inMemory()
+                : MetricsCache.load(options.getMetricsCacheFile());
+        Result baselineResult;
+        try (ArtifactSession session = open(baseline)) {
+            baselineResult = session.analyze(cache);
+        }
+        Result currentResult;
+        try (ArtifactSession session = open(current)) {
+            currentResult = session.analyze(cache);
+        }
+        return Comparison.of(baselineResult, currentResult);
+    }
+
+    /**
+     * Scans {@code artifact} and keeps it open, so that it can be analyzed repeatedly with warm caches.
+     * The caller must close the session to release the artifact and its classes.
+     */
+    public ArtifactSession open(Path artifact) throws IOException {
+        if (Files.isDirectory(artifact)) {
+            return open(artifact, null);
+        }
+        if (!Files.isRegularFile(artifact)) {
+            throw new IllegalArgumentException("Invalid artifact path: " + artifact);
+        }
+        FileSystem fileSystem = FileSystems.newFileSystem(artifact, (ClassLoader) null);
+        try {
+            return open(fileSystem.getRootDirectories().iterator().next(), fileSystem);
+        } catch (IOException | RuntimeException e) {
+            fileSystem.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return repository of the class files below {@code root}, falling back to the platform classes
+     */
+    static ClassInfoRepository createRepository(Path root) {
+        return createRepository(root, List.of());
+    }
+
+    private static ClassInfoRepository createRepository(Path root, List<ScanIndex> indexes) {
+        return new ClassInfoRepository(
+                new PathClassFileSource(root, ClassFileSource.of(ClassLoader.getPlatformClassLoader())), indexes);
+    }
+
+    /**
+     * Takes the class names and class files from the {@link ScanIndex} of the artifact when it has an up-to-date one.
+     */
+    private ArtifactSession open(Path root, FileSystem fileSystem) throws IOException {
+        List<ScanIndex> indexes = options.isUseScanIndex()
+                ? ScanIndex.open(root).map(List::of).orElse(List.of())
+                : List.of();
+        ClassInfoRepository repository = createRepository(root, indexes);
+        AnalyzerStatistics statistics = new AnalyzerStatistics();
+        long scanStart = System.nanoTime();
+        TypeScan typeScan = indexes.isEmpty()
+                ? ClassFileTypeScan.scan(root, packagePrefix, repository,
+                new ConcurrentLoader(options.getLoadingParallelism()))
+                : ClassFileTypeScan.scan(indexes, packagePrefix);
+        statistics.record(Phase.SCAN, System.nanoTime() - scanStart);
+        ClassLoader classLoader = new ArtifactClassLoader(root);
+
+        return new ArtifactSession(fileSystem,
+                new Analyzer(packagePrefix, classLoader, repository, typeScan, statistics, options));
+    }
+}
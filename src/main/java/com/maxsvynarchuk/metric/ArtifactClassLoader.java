@@ -0,0 +1,38 @@
+package com.maxsvynarchuk.metric;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Defines the classes of a single artifact straight from its NIO file system,
+ * so nothing from the artifact leaks into the application class path.
+ * Everything else is delegated to the platform class loader.
+ */
+class ArtifactClassLoader extends ClassLoader {
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final Path root;
+
+    ArtifactClassLoader(Path root) {
+        super("artifact", ClassLoader.getPlatformClassLoader());
+        this.root = Objects.requireNonNull(root);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        Path classFile = root.resolve(name.replace('.', '/') + ".class");
+        if (!Files.isRegularFile(classFile)) {
+            throw new ClassNotFoundException(name);
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(classFile);
+            return defineClass(name, bytes, 0, bytes.length);
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+    }
+}
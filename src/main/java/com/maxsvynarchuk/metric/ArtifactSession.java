@@ -0,0 +1,44 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.report.ReportWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.util.Objects;
+
+/**
+ * An artifact opened by {@link ArtifactAnalyzer#open}: its scan, class loader and member caches
+ * stay warm between analyses until the session is closed. Analyses of one session run one at a time.
+ */
+public class ArtifactSession implements Closeable {
+    /**
+     * Zip file system of a JAR, {@code null} for a class directory.
+     */
+    private final FileSystem fileSystem;
+    private final Analyzer analyzer;
+
+    ArtifactSession(FileSystem fileSystem, Analyzer analyzer) {
+        this.fileSystem = fileSystem;
+        this.analyzer = Objects.requireNonNull(analyzer);
+    }
+
+    public synchronized Result analyze() {
+        return analyzer.calculateMetrics();
+    }
+
+    synchronized Result analyze(MetricsCache cache) {
+        return analyzer.calculateMetrics(cache);
+    }
+
+    public synchronized Result analyze(ReportWriter reportWriter) throws IOException {
+        return analyzer.calculateMetrics(reportWriter);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(fileSystem)) {
+            fileSystem.close();
+        }
+    }
+}
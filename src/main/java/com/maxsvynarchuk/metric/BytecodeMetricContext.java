@@ -0,0 +1,52 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.bytecode.BytecodeHelper;
+import com.maxsvynarchuk.metric.bytecode.ClassInfo;
+import com.maxsvynarchuk.metric.bytecode.MemberInfo;
+import com.maxsvynarchuk.metric.plugin.MetricInput;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class BytecodeMetricContext extends AbstractMetricContext<ClassInfo> {
+
+    BytecodeMetricContext(ClassInfo classInfo, Set<MetricInput> inputs, HierarchyIndex hierarchyIndex,
+                          InheritedMembersCache<ClassInfo> inheritedMembersCache) {
+        super(classInfo, classInfo.getName(), inputs, hierarchyIndex, inheritedMembersCache);
+    }
+
+    @Override
+    protected List<MethodSignature> readDeclaredMethodSignatures() {
+        return BytecodeHelper.getDeclaredMethods(type).stream()
+                .map(MemberInfo::getSignature)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    protected int countPrivateMethods() {
+        return BytecodeHelper.getPrivateMethods(type).size();
+    }
+
+    @Override
+    protected int countOpenMethods() {
+        return BytecodeHelper.getOpenMethods(type).size();
+    }
+
+    @Override
+    protected Set<String> readDeclaredForInheritanceFieldNames() {
+        return BytecodeHelper.getDeclaredForInheritanceFields(type).stream()
+                .map(MemberInfo::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    protected int countPrivateFields() {
+        return BytecodeHelper.getPrivateFields(type).size();
+    }
+
+    @Override
+    protected int countFields() {
+        return BytecodeHelper.getAllDeclaredFields(type).size();
+    }
+}
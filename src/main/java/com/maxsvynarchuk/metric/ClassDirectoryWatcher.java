@@ -0,0 +1,271 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.AnalyzerStatistics.Phase;
+import com.maxsvynarchuk.metric.bytecode.ClassFileTypeScan;
+import com.maxsvynarchuk.metric.bytecode.ClassInfoRepository;
+import com.maxsvynarchuk.metric.plugin.MetricPlugins;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the metrics of a class directory up to date while it is being recompiled.
+ * <p>
+ * When class files change, only those classes and their subtypes, whose inherited members depend on them,
+ * are analyzed again; the children counts of their supertypes are updated in place, and the factor sums
+ * are adjusted by the difference instead of being summed up again. Changes reported within
+ * {@link #DEBOUNCE_MILLIS} of each other, as during one compilation, are applied as one batch.
+ * <p>
+ * Class files are always read as bytecode, whatever the configured engine: a class that was loaded once
+ * cannot be redefined by its class loader. {@link AnalyzerOptions#getSampling() Sampling} does not apply.
+ */
+public class ClassDirectoryWatcher implements Closeable {
+    public static final long DEBOUNCE_MILLIS = 300;
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final Path root;
+    private final String packagePrefix;
+    private final AnalyzerOptions options;
+    private final WatchService watchService;
+
+    private ClassInfoRepository repository;
+    private ClassFileTypeScan typeScan;
+    private Analyzer analyzer;
+    private final Map<String, ClassMetrics> classMetrics = new TreeMap<>();
+    private final TreeMap<Integer, Integer> numOfClassesByDepth = new TreeMap<>();
+    private MetricsAccumulator accumulator;
+    /**
+     * Set when an update failed or events were lost; the next batch analyzes the whole directory again.
+     */
+    private boolean stale;
+
+    /**
+     * Analyzes the directory once and starts watching it; {@link #watch} delivers the updates.
+     *
+     * @param packagePrefix only classes whose name starts with it are analyzed, empty for all
+     */
+    public ClassDirectoryWatcher(Path root, String packagePrefix, AnalyzerOptions options) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Invalid class directory: " + root);
+        }
+        this.root = root;
+        this.packagePrefix = Objects.requireNonNull(packagePrefix);
+        this.options = options.toBuilder()
+                .engine(Engine.BYTECODE)
+                .metricsCacheFile(null)
+                .sampling(null)
+                .build();
+        this.watchService = root.getFileSystem().newWatchService();
+        register(root);
+        analyzeAll();
+    }
+
+    /**
+     * @return snapshot of the current metrics, unaffected by later updates
+     */
+    public synchronized Result getResult() {
+        MetricsTable metricsTable = MetricsTable.of(new ArrayList<>(classMetrics.values()));
+        Result result = accumulator.toResult(metricsTable.asClassMetricsList());
+        result.setMetricsTable(metricsTable);
+        result.setBuiltInMetrics(MetricPlugins.builtInAmong(options.getMetrics()));
+        result.setPackageMetrics(PackageMetrics.of(metricsTable));
+        result.setMaxDepthOfInheritanceTree(numOfClassesByDepth.isEmpty() ? -1 : numOfClassesByDepth.lastKey());
+        return result;
+    }
+
+    /**
+     * Blocks and hands the updated {@link #getResult() result} to {@code listener} after every batch
+     * of changes, until the watcher is closed or the current thread is interrupted.
+     */
+    public void watch(Consumer<Result> listener) throws IOException {
+        try {
+            while (true) {
+                Set<Path> changedFiles = new HashSet<>();
+                WatchKey key = watchService.take();
+                while (Objects.nonNull(key)) {
+                    collectChanges(key, changedFiles);
+                    key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (update(changedFiles)) {
+                    listener.accept(getResult());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed by another thread
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void collectChanges(WatchKey key, Set<Path> changedFiles) throws IOException {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                stale = true;
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                register(path);
+                try (Stream<Path> paths = Files.walk(path)) {
+                    paths.filter(Files::isRegularFile).forEach(changedFiles::add);
+                }
+            } else {
+                changedFiles.add(path);
+            }
+        }
+        key.reset();
+    }
+
+    private void register(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.filter(Files::isDirectory).collect(Collectors.toList())) {
+                path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        }
+    }
+
+    /**
+     * @return whether the metrics were updated
+     */
+    synchronized boolean update(Set<Path> changedFiles) {
+        Set<String> changed = changedFiles.stream()
+                .map(this::toClassName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (changed.isEmpty() && !stale) {
+            return false;
+        }
+        try {
+            if (stale) {
+                analyzeAll();
+            } else {
+                applyChanges(changed);
+            }
+            return true;
+        } catch (IOException | RuntimeException | LinkageError e) {
+            System.err.println("Cannot update metrics: " + e);
+            stale = true;
+            return false;
+        }
+    }
+
+    private void analyzeAll() throws IOException {
+        repository = ArtifactAnalyzer.createRepository(root);
+        AnalyzerStatistics statistics = new AnalyzerStatistics();
+        long scanStart = System.nanoTime();
+        typeScan = ClassFileTypeScan.scan(root, packagePrefix, repository,
+                new ConcurrentLoader(options.getLoadingParallelism()));
+        statistics.record(Phase.SCAN, System.nanoTime() - scanStart);
+        analyzer = new Analyzer(packagePrefix, new ArtifactClassLoader(root), repository, typeScan, statistics,
+                options);
+        classMetrics.clear();
+        numOfClassesByDepth.clear();
+        accumulator = new MetricsAccumulator();
+        analyzer.calculateMetrics(this::add);
+        stale = false;
+    }
+
+    private void applyChanges(Set<String> changed) {
+        Set<String> affected = new TreeSet<>(changed);
+        Set<String> supertypeNames = new HashSet<>();
+        for (String className : changed) {
+            collectDescendants(className, affected);
+            supertypeNames.addAll(typeScan.removeType(className));
+        }
+        repository.invalidate(affected);
+        for (String className : changed) {
+            if (Files.isRegularFile(toPath(className))) {
+                typeScan.addType(repository.get(className));
+                supertypeNames.addAll(typeScan.getSupertypeNames(className));
+            }
+        }
+
+        // a class is analyzed only if it is reachable from java.lang.Object, as in a full scan
+        Set<String> allTypes = typeScan.getAllTypes();
+        for (String className : affected) {
+            ClassMetrics previous = classMetrics.remove(className);
+            if (Objects.nonNull(previous)) {
+                remove(previous);
+            }
+        }
+        List<String> reanalyzed = affected.stream()
+                .filter(allTypes::contains)
+                .collect(Collectors.toList());
+        analyzer.recalculateMetrics(reanalyzed).forEach(this::add);
+
+        for (String supertypeName : supertypeNames) {
+            ClassMetrics cm = classMetrics.get(supertypeName);
+            if (Objects.isNull(cm) || affected.contains(supertypeName)) {
+                continue;
+            }
+            int numOfChildren = analyzer.getNumOfChildren(supertypeName);
+            if (cm.getNumOfChildren() != numOfChildren) {
+                accumulator.remove(cm);
+                cm.setNumOfChildren(numOfChildren);
+                accumulator.add(cm);
+            }
+        }
+    }
+
+    private void collectDescendants(String className, Set<String> descendants) {
+        for (String subTypeName : typeScan.getSubTypes(className)) {
+            if (descendants.add(subTypeName)) {
+                collectDescendants(subTypeName, descendants);
+            }
+        }
+    }
+
+    private void add(ClassMetrics cm) {
+        classMetrics.put(cm.getClassName(), cm);
+        numOfClassesByDepth.merge(cm.getDepthOfInheritanceTree(), 1, Integer::sum);
+        accumulator.add(cm);
+    }
+
+    private void remove(ClassMetrics cm) {
+        numOfClassesByDepth.computeIfPresent(cm.getDepthOfInheritanceTree(),
+                (depth, count) -> count > 1 ? count - 1 : null);
+        accumulator.remove(cm);
+    }
+
+    /**
+     * @return name of the class compiled to {@code file}, {@code null} for other files and filtered classes
+     */
+    private String toClassName(Path file) {
+        String name = root.relativize(file).toString().replace(root.getFileSystem().getSeparator(), ".");
+        if (!name.endsWith(CLASS_SUFFIX) || name.startsWith("META-INF.")) {
+            return null;
+        }
+        name = name.substring(0, name.length() - CLASS_SUFFIX.length());
+        return name.startsWith(packagePrefix) && !name.endsWith("module-info") ? name : null;
+    }
+
+    private Path toPath(String className) {
+        return root.resolve(className.replace('.', '/') + CLASS_SUFFIX);
+    }
+}
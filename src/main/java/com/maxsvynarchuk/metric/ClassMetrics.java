@@ -5,7 +5,10 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 
 @Getter
 @Setter
@@ -39,8 +42,37 @@ public class ClassMetrics {
     private int numOfInheritedAndOverrideMethods;
     private int numOfNewMethods;
 
+    /**
+     * Values of metrics contributed by {@link com.maxsvynarchuk.metric.plugin.MetricPlugin plugins}, by name.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private Map<String, Integer> additionalMetrics;
+
     public ClassMetrics(Class<?> clazz) {
         this.clazz = Objects.requireNonNull(clazz);
         this.className = clazz.getName();
     }
+
+    public ClassMetrics(String className) {
+        this.clazz = null;
+        this.className = Objects.requireNonNull(className);
+    }
+
+    public synchronized void setAdditionalMetric(String name, int value) {
+        if (Objects.isNull(additionalMetrics)) {
+            additionalMetrics = new TreeMap<>();
+        }
+        additionalMetrics.put(Objects.requireNonNull(name), value);
+    }
+
+    /**
+     * @return values set through {@link #setAdditionalMetric}, ordered by name
+     */
+    public synchronized Map<String, Integer> getAdditionalMetrics() {
+        return Objects.isNull(additionalMetrics)
+                ? Map.of()
+                : Collections.unmodifiableMap(new TreeMap<>(additionalMetrics));
+    }
 }
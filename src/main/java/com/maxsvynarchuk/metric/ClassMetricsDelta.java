@@ -0,0 +1,93 @@
+package com.maxsvynarchuk.metric;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.ToIntFunction;
+
+/**
+ * How the metrics of one class differ between a baseline and a current build.
+ */
+@Getter
+@ToString
+public class ClassMetricsDelta {
+    private static final Map<String, ToIntFunction<ClassMetrics>> METRICS = new LinkedHashMap<>();
+
+    static {
+        METRICS.put("depthOfInheritanceTree", ClassMetrics::getDepthOfInheritanceTree);
+        METRICS.put("numOfChildren", ClassMetrics::getNumOfChildren);
+        METRICS.put("numOfInheritedAndNonOverrideMethods", ClassMetrics::getNumOfInheritedAndNonOverrideMethods);
+        METRICS.put("numOfAccessibleMethods", ClassMetrics::getNumOfAccessibleMethods);
+        METRICS.put("numOfPrivateMethods", ClassMetrics::getNumOfPrivateMethods);
+        METRICS.put("numOfOpenMethods", ClassMetrics::getNumOfOpenMethods);
+        METRICS.put("numOfInheritedAndNonOverrideFields", ClassMetrics::getNumOfInheritedAndNonOverrideFields);
+        METRICS.put("numOfAccessibleFields", ClassMetrics::getNumOfAccessibleFields);
+        METRICS.put("numOfPrivateFields", ClassMetrics::getNumOfPrivateFields);
+        METRICS.put("numOfFields", ClassMetrics::getNumOfFields);
+        METRICS.put("numOfInheritedAndOverrideMethods", ClassMetrics::getNumOfInheritedAndOverrideMethods);
+        METRICS.put("numOfNewMethods", ClassMetrics::getNumOfNewMethods);
+    }
+
+    private final String className;
+    /**
+     * {@code null} for a class that was added.
+     */
+    @ToString.Exclude
+    private final ClassMetrics baseline;
+    /**
+     * {@code null} for a class that was removed.
+     */
+    @ToString.Exclude
+    private final ClassMetrics current;
+    /**
+     * Current minus baseline value of every metric that changed, built-in metrics first and plugin metrics
+     * by name; a missing side counts as zeros.
+     */
+    private final Map<String, Integer> differences;
+
+    ClassMetricsDelta(ClassMetrics baseline, ClassMetrics current) {
+        this.className = Objects.nonNull(current) ? current.getClassName() : baseline.getClassName();
+        this.baseline = baseline;
+        this.current = current;
+
+        Map<String, Integer> differences = new LinkedHashMap<>();
+        METRICS.forEach((name, metric) -> {
+            int difference = valueOf(current, metric) - valueOf(baseline, metric);
+            if (difference != 0) {
+                differences.put(name, difference);
+            }
+        });
+        TreeSet<String> additionalNames = new TreeSet<>();
+        if (Objects.nonNull(baseline)) {
+            additionalNames.addAll(baseline.getAdditionalMetrics().keySet());
+        }
+        if (Objects.nonNull(current)) {
+            additionalNames.addAll(current.getAdditionalMetrics().keySet());
+        }
+        for (String name : additionalNames) {
+            int difference = valueOf(current, cm -> cm.getAdditionalMetrics().getOrDefault(name, 0))
+                    - valueOf(baseline, cm -> cm.getAdditionalMetrics().getOrDefault(name, 0));
+            if (difference != 0) {
+                differences.put(name, difference);
+            }
+        }
+        this.differences = Collections.unmodifiableMap(differences);
+    }
+
+    public boolean isAdded() {
+        return Objects.isNull(baseline);
+    }
+
+    public boolean isRemoved() {
+        return Objects.isNull(current);
+    }
+
+    private static int valueOf(ClassMetrics classMetrics, ToIntFunction<ClassMetrics> metric) {
+        return Objects.isNull(classMetrics) ? 0 : metric.applyAsInt(classMetrics);
+    }
+}
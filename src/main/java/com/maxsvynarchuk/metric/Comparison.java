@@ -0,0 +1,136 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.plugin.BuiltInMetric;
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Metrics of a baseline and a current build of the same code base, and what changed between them.
+ */
+@Getter
+public class Comparison {
+    private final Result baseline;
+    private final Result current;
+    /**
+     * Classes whose metrics differ, added and removed ones included, ordered by name.
+     */
+    private final List<ClassMetricsDelta> classDeltas;
+
+    private Comparison(Result baseline, Result current, List<ClassMetricsDelta> classDeltas) {
+        this.baseline = baseline;
+        this.current = current;
+        this.classDeltas = classDeltas;
+    }
+
+    /**
+     * Only materializes the {@link ClassMetrics} of classes that differ.
+     *
+     * @throws IllegalArgumentException if a result does not keep its {@link MetricsTable}
+     */
+    public static Comparison of(Result baseline, Result current) {
+        MetricsTable baselineTable = baseline.getMetricsTable();
+        MetricsTable currentTable = current.getMetricsTable();
+        if (Objects.isNull(baselineTable) || Objects.isNull(currentTable)) {
+            throw new IllegalArgumentException("Results without per-class metrics cannot be compared");
+        }
+        List<ClassMetricsDelta> classDeltas = new ArrayList<>();
+        for (int i = 0; i < currentTable.size(); i++) {
+            int baselineIndex = baselineTable.indexOf(currentTable.getClassName(i));
+            if (baselineIndex < 0) {
+                classDeltas.add(new ClassMetricsDelta(null, currentTable.getClassMetrics(i)));
+            } else if (!currentTable.rowEquals(i, baselineTable, baselineIndex)) {
+                classDeltas.add(new ClassMetricsDelta(baselineTable.getClassMetrics(baselineIndex),
+                        currentTable.getClassMetrics(i)));
+            }
+        }
+        for (int i = 0; i < baselineTable.size(); i++) {
+            if (currentTable.indexOf(baselineTable.getClassName(i)) < 0) {
+                classDeltas.add(new ClassMetricsDelta(baselineTable.getClassMetrics(i), null));
+            }
+        }
+        classDeltas.sort(Comparator.comparing(ClassMetricsDelta::getClassName));
+        return new Comparison(baseline, current, Collections.unmodifiableList(classDeltas));
+    }
+
+    public double getMethodInheritanceFactorDelta() {
+        return current.getMethodInheritanceFactor() - baseline.getMethodInheritanceFactor();
+    }
+
+    public double getMethodHidingFactorDelta() {
+        return current.getMethodHidingFactor() - baseline.getMethodHidingFactor();
+    }
+
+    public double getAttributeHidingFactorDelta() {
+        return current.getAttributeHidingFactor() - baseline.getAttributeHidingFactor();
+    }
+
+    public double getAttributeInheritanceFactorDelta() {
+        return current.getAttributeInheritanceFactor() - baseline.getAttributeInheritanceFactor();
+    }
+
+    public double getPolymorphismObjectFactorDelta() {
+        return current.getPolymorphismObjectFactor() - baseline.getPolymorphismObjectFactor();
+    }
+
+    /**
+     * Prints the changed classes and the factors of both builds to {@code System.out}, leaving out the factors of
+     * built-in metrics that were not selected.
+     */
+    public void printAll() {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out));
+        try {
+            writer.write(">>> Changed classes: " + classDeltas.size() + "\n");
+            for (ClassMetricsDelta delta : classDeltas) {
+                writer.write(delta.isAdded() ? "+ " : delta.isRemoved() ? "- " : "~ ");
+                writer.write(delta.getClassName());
+                for (Map.Entry<String, Integer> difference : delta.getDifferences().entrySet()) {
+                    writer.write(String.format(Locale.ROOT, " %s=%+d", difference.getKey(), difference.getValue()));
+                }
+                writer.write("\n");
+            }
+            writer.write("\n>>> Factors (baseline -> current):\n");
+            Set<BuiltInMetric> selected = current.getBuiltInMetrics();
+            if (selected.contains(BuiltInMetric.MIF)) {
+                writeFactor(writer, "Method Inheritance Factor", baseline.getMethodInheritanceFactor(),
+                        current.getMethodInheritanceFactor(), getMethodInheritanceFactorDelta());
+            }
+            if (selected.contains(BuiltInMetric.MHF)) {
+                writeFactor(writer, "Method Hiding Factor", baseline.getMethodHidingFactor(),
+                        current.getMethodHidingFactor(), getMethodHidingFactorDelta());
+            }
+            if (selected.contains(BuiltInMetric.AHF)) {
+                writeFactor(writer, "Attribute Hiding Factor", baseline.getAttributeHidingFactor(),
+                        current.getAttributeHidingFactor(), getAttributeHidingFactorDelta());
+            }
+            if (selected.contains(BuiltInMetric.AIF)) {
+                writeFactor(writer, "Attribute Inheritance Factor", baseline.getAttributeInheritanceFactor(),
+                        current.getAttributeInheritanceFactor(), getAttributeInheritanceFactorDelta());
+            }
+            if (selected.contains(BuiltInMetric.POF)) {
+                writeFactor(writer, "Polymorphism Object Factor", baseline.getPolymorphismObjectFactor(),
+                        current.getPolymorphismObjectFactor(), getPolymorphismObjectFactorDelta());
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeFactor(Writer writer, String name, double baseline, double current, double delta)
+            throws IOException {
+        writer.write(String.format(Locale.ROOT, "%s: %f -> %f (%+f)\n", name, baseline, current, delta));
+    }
+}
@@ -0,0 +1,163 @@
+package com.maxsvynarchuk.metric;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs I/O-bound work per class, such as reading class files or defining classes, on several threads:
+ * virtual threads on JDKs that have them, a bounded pool of daemon threads otherwise.
+ * <p>
+ * At most {@code 4 * parallelism} tasks are submitted but not finished at any time; the submitting
+ * thread waits for a free slot, so a slow file system throttles submission instead of filling a queue.
+ * Results keep the order of the inputs, and a failing input does not cancel the others: every failure
+ * is collected in the {@link Outcome}.
+ */
+public final class ConcurrentLoader {
+    public static final int DEFAULT_PARALLELISM = 16;
+    private static final int TASKS_PER_THREAD = 4;
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadExecutorFactory();
+
+    private final int parallelism;
+
+    /**
+     * @param parallelism number of threads; {@code 1} runs every task on the calling thread
+     */
+    public ConcurrentLoader(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    @FunctionalInterface
+    public interface Task<T, R> {
+        R apply(T input) throws Exception;
+    }
+
+    public <T, R> Outcome<T, R> load(List<T> inputs, Task<T, R> task) {
+        Object[] values = new Object[inputs.size()];
+        Throwable[] failures = new Throwable[inputs.size()];
+        if (parallelism == 1 || inputs.size() < 2) {
+            for (int i = 0; i < inputs.size(); i++) {
+                run(inputs, task, i, values, failures);
+            }
+            return new Outcome<>(inputs, values, failures);
+        }
+
+        int maximumPending = TASKS_PER_THREAD * parallelism;
+        Semaphore pending = new Semaphore(maximumPending);
+        ExecutorService executor = newExecutor(parallelism);
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                int index = i;
+                pending.acquire();
+                executor.execute(() -> {
+                    try {
+                        run(inputs, task, index, values, failures);
+                    } finally {
+                        pending.release();
+                    }
+                });
+            }
+            // every slot is free again once the last task is done
+            pending.acquire(maximumPending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading classes", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Outcome<>(inputs, values, failures);
+    }
+
+    /**
+     * @return virtual-thread-per-task executor where available, otherwise a fixed pool of {@code parallelism}
+     * daemon threads; the caller shuts it down
+     */
+    public static ExecutorService newExecutor(int parallelism) {
+        if (Objects.nonNull(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR)) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException ignored) {
+                // fall back to platform threads
+            }
+        }
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "class-loader-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static <T, R> void run(List<T> inputs, Task<T, R> task, int index, Object[] values, Throwable[] failures) {
+        try {
+            values[index] = task.apply(inputs.get(index));
+        } catch (Exception | Error e) {
+            failures[index] = e;
+        }
+    }
+
+    private static Method findVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public static final class Outcome<T, R> {
+        private final List<R> values;
+        private final Map<T, Throwable> failures;
+        private final Throwable failure;
+
+        @SuppressWarnings("unchecked")
+        private Outcome(List<T> inputs, Object[] values, Throwable[] failures) {
+            this.values = Collections.unmodifiableList(Arrays.asList((R[]) values));
+            Map<T, Throwable> failuresByInput = new LinkedHashMap<>();
+            Throwable first = null;
+            for (int i = 0; i < failures.length; i++) {
+                if (Objects.isNull(failures[i])) {
+                    continue;
+                }
+                failuresByInput.put(inputs.get(i), failures[i]);
+                if (Objects.isNull(first)) {
+                    first = failures[i];
+                } else if (failures[i] != first) {
+                    first.addSuppressed(failures[i]);
+                }
+            }
+            this.failures = Collections.unmodifiableMap(failuresByInput);
+            this.failure = first;
+        }
+
+        /**
+         * @return result per input, in the order of the inputs; {@code null} for inputs that failed
+         */
+        public List<R> getValues() {
+            return values;
+        }
+
+        /**
+         * @return failures by input, in the order of the inputs
+         */
+        public Map<T, Throwable> getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return the first failure with all later ones attached as suppressed, empty if every input succeeded
+         */
+        public Optional<Throwable> getFailure() {
+            return Optional.ofNullable(failure);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.maxsvynarchuk.metric;
+
+public enum Engine {
+    /**
+     * Loads every scanned type with {@code Class.forName} and inspects it through reflection.
+     */
+    REFLECTION,
+    /**
+     * Reads {@code .class} files directly, without loading, defining or initializing target classes.
+     */
+    BYTECODE
+}
@@ -0,0 +1,59 @@
+package com.maxsvynarchuk.metric;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.stream.Stream;
+
+/**
+ * How the factors of a sampled {@link Result} were estimated, with a confidence interval per factor.
+ * Intervals of undefined factors are {@code NaN}.
+ */
+@Builder
+@Getter
+@ToString
+public class Estimate {
+    /**
+     * Classes the estimate stands for: the scanned classes less the sampled ones that could not be analyzed,
+     * and less the strata none of whose sampled classes could be.
+     */
+    private final long populationSize;
+    private final int sampleSize;
+    private final int numOfStrata;
+    private final double confidenceLevel;
+
+    private final Interval methodInheritanceFactor;
+    private final Interval methodHidingFactor;
+    private final Interval attributeHidingFactor;
+    private final Interval attributeInheritanceFactor;
+    private final Interval polymorphismObjectFactor;
+
+    /**
+     * @return widest half-width among the defined factors, {@code 0} if none is defined
+     */
+    public double getMaxHalfWidth() {
+        return Stream.of(methodInheritanceFactor, methodHidingFactor, attributeHidingFactor,
+                attributeInheritanceFactor, polymorphismObjectFactor)
+                .mapToDouble(Interval::getHalfWidth)
+                .filter(halfWidth -> !Double.isNaN(halfWidth))
+                .max()
+                .orElse(0);
+    }
+
+    @Getter
+    @ToString
+    public static class Interval {
+        private final double lower;
+        private final double upper;
+
+        Interval(double lower, double upper) {
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        public double getHalfWidth() {
+            return (upper - lower) / 2;
+        }
+    }
+}
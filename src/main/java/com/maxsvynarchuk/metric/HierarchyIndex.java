@@ -0,0 +1,259 @@
+package com.maxsvynarchuk.metric;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Inverted view of a scanned type graph, built once per analysis.
+ * <p>
+ * Types are numbered in the order they were given; direct subtypes are kept as a compressed adjacency
+ * list (offsets into one shared {@code int[]}) and depths of inheritance are computed in a single
+ * topological pass, so children counts and depths are array reads afterwards. A {@link #buildLazily lazy}
+ * index computes a depth on first access instead, for analyses that only look at some of the types.
+ */
+public final class HierarchyIndex {
+    private static final int UNKNOWN_DEPTH = Integer.MIN_VALUE;
+
+    private final String[] classNames;
+    private final Map<String, Integer> indexByClassName;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] levels;
+    private final int[] depths;
+    /**
+     * Computes the depth of a type on first access, {@code null} when all depths were computed up front.
+     */
+    private final IntUnaryOperator depthCalculator;
+
+    private HierarchyIndex(Graph graph, int[] depths) {
+        this.classNames = graph.names;
+        this.indexByClassName = Map.copyOf(graph.indexByClassName);
+        this.childOffsets = graph.childOffsets;
+        this.children = graph.children;
+        this.levels = graph.levels;
+        this.depths = depths;
+        this.depthCalculator = null;
+    }
+
+    private <T> HierarchyIndex(Graph graph, TypeHierarchy<T> hierarchy, Function<String, T> resolver) {
+        this.classNames = graph.names;
+        this.indexByClassName = Map.copyOf(graph.indexByClassName);
+        this.childOffsets = graph.childOffsets;
+        this.children = graph.children;
+        this.levels = graph.levels;
+        this.depths = new int[classNames.length];
+        Arrays.fill(depths, UNKNOWN_DEPTH);
+        this.depthCalculator = index -> calculateDepth(index, hierarchy, resolver);
+    }
+
+    /**
+     * @param classNames the scanned types; subtypes reported by {@code typeScan} outside of them are ignored
+     * @param hierarchy  supplies superclasses for the depth of inheritance, including ancestors that were not scanned
+     * @param resolver   maps a scanned type name to its handle in {@code hierarchy}
+     */
+    public static <T> HierarchyIndex build(List<String> classNames, TypeScan typeScan,
+                                           TypeHierarchy<T> hierarchy, Function<String, T> resolver) {
+        Graph graph = new Graph(classNames, typeScan);
+        return new HierarchyIndex(graph, calculateDepths(graph, hierarchy, resolver));
+    }
+
+    /**
+     * Same as {@link #build}, but resolves no type up front: the depth of inheritance of a type is computed
+     * when it is first asked for, resolving that type and its ancestors only. Children counts and
+     * {@link #getLevel levels} come from {@code typeScan} alone.
+     */
+    public static <T> HierarchyIndex buildLazily(List<String> classNames, TypeScan typeScan,
+                                                 TypeHierarchy<T> hierarchy, Function<String, T> resolver) {
+        return new HierarchyIndex(new Graph(classNames, typeScan), hierarchy, resolver);
+    }
+
+    /**
+     * Visits types parents-first, in the topological order of the graph, so that the superclass
+     * of a type, when it was scanned, already has its depth. Only types whose superclass lies outside
+     * the index walk their ancestors through {@code hierarchy}.
+     */
+    private static <T> int[] calculateDepths(Graph graph, TypeHierarchy<T> hierarchy, Function<String, T> resolver) {
+        int size = graph.names.length;
+        int[] depths = new int[size];
+        int[] superclasses = new int[size];
+        for (int i = 0; i < size; i++) {
+            T type = resolver.apply(graph.names[i]);
+            T superclass = hierarchy.getSuperclass(type);
+            Integer superclassIndex = Objects.isNull(superclass)
+                    ? null
+                    : graph.indexByClassName.get(hierarchy.getName(superclass));
+            superclasses[i] = Objects.isNull(superclassIndex) ? -1 : superclassIndex;
+            if (Objects.isNull(superclassIndex)) {
+                depths[i] = calculateDepth(type, hierarchy);
+            }
+        }
+        for (int type : graph.order) {
+            if (superclasses[type] >= 0) {
+                depths[type] = depths[superclasses[type]] + 1;
+            }
+        }
+        return depths;
+    }
+
+    /**
+     * Takes the depth of the superclass from the index where it was scanned, so ancestors shared by
+     * several types are resolved once.
+     */
+    private <T> int calculateDepth(int index, TypeHierarchy<T> hierarchy, Function<String, T> resolver) {
+        T type = resolver.apply(classNames[index]);
+        T superclass = hierarchy.getSuperclass(type);
+        int superclassIndex = Objects.isNull(superclass) ? -1 : indexOf(hierarchy.getName(superclass));
+        return superclassIndex < 0
+                ? calculateDepth(type, hierarchy)
+                : getDepthOfInheritanceTree(superclassIndex) + 1;
+    }
+
+    private static <T> int calculateDepth(T type, TypeHierarchy<T> hierarchy) {
+        int depth = -1;
+        for (T superclass = hierarchy.getSuperclass(type); Objects.nonNull(superclass);
+             superclass = hierarchy.getSuperclass(superclass)) {
+            depth++;
+        }
+        return depth;
+    }
+
+    public int size() {
+        return classNames.length;
+    }
+
+    /**
+     * @return index of {@code className}, or {@code -1} if it was not scanned
+     */
+    public int indexOf(String className) {
+        return indexByClassName.getOrDefault(className, -1);
+    }
+
+    public String getClassName(int index) {
+        return classNames[index];
+    }
+
+    /**
+     * @return indices of the direct subtypes of {@code index}, in ascending order
+     */
+    public int[] getChildren(int index) {
+        return Arrays.copyOfRange(children, childOffsets[index], childOffsets[index + 1]);
+    }
+
+    public int getNumOfChildren(int index) {
+        return childOffsets[index + 1] - childOffsets[index];
+    }
+
+    /**
+     * @return number of distinct scanned types that extend or implement {@code index}, directly or not
+     */
+    public int getNumOfDescendants(int index) {
+        BitSet visited = new BitSet(classNames.length);
+        int[] stack = new int[classNames.length];
+        int top = 0;
+        stack[top++] = index;
+        while (top > 0) {
+            int type = stack[--top];
+            for (int i = childOffsets[type]; i < childOffsets[type + 1]; i++) {
+                int child = children[i];
+                if (!visited.get(child)) {
+                    visited.set(child);
+                    stack[top++] = child;
+                }
+            }
+        }
+        return visited.cardinality();
+    }
+
+    /**
+     * @return depth of inheritance tree, {@code -1} for interfaces
+     */
+    public int getDepthOfInheritanceTree(int index) {
+        int depth = depths[index];
+        if (depth == UNKNOWN_DEPTH) {
+            // racing threads compute the same value
+            depth = depthCalculator.applyAsInt(index);
+            depths[index] = depth;
+        }
+        return depth;
+    }
+
+    /**
+     * @return length of the longest chain of scanned supertypes, classes or interfaces, above {@code index};
+     * known without resolving any type, unlike the depth of inheritance tree it follows
+     */
+    public int getLevel(int index) {
+        return levels[index];
+    }
+
+    /**
+     * Subtype edges among the scanned types as a compressed adjacency list, with a topological order.
+     */
+    private static final class Graph {
+        private final String[] names;
+        private final Map<String, Integer> indexByClassName;
+        private final int[] childOffsets;
+        private final int[] children;
+        /**
+         * Types parents-first (Kahn's algorithm over the subtype edges); types on a cycle are left out.
+         */
+        private final int[] order;
+        private final int[] levels;
+
+        Graph(List<String> classNames, TypeScan typeScan) {
+            int size = classNames.size();
+            names = classNames.toArray(new String[0]);
+            indexByClassName = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                indexByClassName.put(names[i], i);
+            }
+
+            childOffsets = new int[size + 1];
+            int[][] childrenByParent = new int[size][];
+            int[] numOfParents = new int[size];
+            for (int i = 0; i < size; i++) {
+                int[] direct = typeScan.getSubTypes(names[i]).stream()
+                        .map(indexByClassName::get)
+                        .filter(Objects::nonNull)
+                        .mapToInt(Integer::intValue)
+                        .sorted()
+                        .toArray();
+                childrenByParent[i] = direct;
+                childOffsets[i + 1] = childOffsets[i] + direct.length;
+                for (int child : direct) {
+                    numOfParents[child]++;
+                }
+            }
+            children = new int[childOffsets[size]];
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(childrenByParent[i], 0, children, childOffsets[i], childrenByParent[i].length);
+            }
+
+            int[] queue = new int[size];
+            int head = 0;
+            int tail = 0;
+            for (int i = 0; i < size; i++) {
+                if (numOfParents[i] == 0) {
+                    queue[tail++] = i;
+                }
+            }
+            levels = new int[size];
+            while (head < tail) {
+                int type = queue[head++];
+                for (int i = childOffsets[type]; i < childOffsets[type + 1]; i++) {
+                    int child = children[i];
+                    levels[child] = Math.max(levels[child], levels[type] + 1);
+                    if (--numOfParents[child] == 0) {
+                        queue[tail++] = child;
+                    }
+                }
+            }
+            order = Arrays.copyOf(queue, tail);
+        }
+    }
+}
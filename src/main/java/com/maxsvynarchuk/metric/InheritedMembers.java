@@ -0,0 +1,28 @@
+package com.maxsvynarchuk.metric;
+
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+public class InheritedMembers {
+    public static final InheritedMembers EMPTY = new InheritedMembers(Set.of(), Set.of(), Set.of());
+
+    /**
+     * Union of the accessible methods of the direct supertypes.
+     */
+    private final Set<MethodSignature> inheritedMethodSignatures;
+    /**
+     * Inherited methods plus the ones the type declares itself.
+     */
+    private final Set<MethodSignature> accessibleMethodSignatures;
+    private final Set<String> accessibleFieldNames;
+
+    public InheritedMembers(Set<MethodSignature> inheritedMethodSignatures,
+                            Set<MethodSignature> accessibleMethodSignatures,
+                            Set<String> accessibleFieldNames) {
+        this.inheritedMethodSignatures = Set.copyOf(inheritedMethodSignatures);
+        this.accessibleMethodSignatures = Set.copyOf(accessibleMethodSignatures);
+        this.accessibleFieldNames = Set.copyOf(accessibleFieldNames);
+    }
+}
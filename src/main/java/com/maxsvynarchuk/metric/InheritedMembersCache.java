@@ -0,0 +1,76 @@
+package com.maxsvynarchuk.metric;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Memoizes the accessible members of every type in a hierarchy.
+ * <p>
+ * A type's entry is derived from the entries of its direct supertypes, which are resolved first,
+ * so each ancestor (including {@code java.lang.Object} and supertypes outside the analyzed package)
+ * is walked once no matter how many subtypes share it. The cache is bounded; an evicted ancestor is
+ * simply derived again on its next use.
+ */
+public class InheritedMembersCache<T> {
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final TypeHierarchy<T> hierarchy;
+    private final LoadingCache<T, InheritedMembers> cache;
+
+    public InheritedMembersCache(TypeHierarchy<T> hierarchy) {
+        this(hierarchy, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public InheritedMembersCache(TypeHierarchy<T> hierarchy, long maximumSize) {
+        this.hierarchy = Objects.requireNonNull(hierarchy);
+        this.cache = CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumSize(maximumSize)
+                .build(CacheLoader.from(this::derive));
+    }
+
+    public InheritedMembers get(T type) {
+        try {
+            return cache.getUnchecked(type);
+        } catch (UncheckedExecutionException | ExecutionError e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private InheritedMembers derive(T type) {
+        if (hierarchy.isObject(type)) {
+            return InheritedMembers.EMPTY;
+        }
+        Set<MethodSignature> inheritedMethods = new HashSet<>();
+        Set<String> accessibleFields = new HashSet<>(hierarchy.getDeclaredFieldNames(type));
+
+        T superclass = hierarchy.getSuperclass(type);
+        if (Objects.nonNull(superclass)) {
+            InheritedMembers parent = get(superclass);
+            inheritedMethods.addAll(parent.getAccessibleMethodSignatures());
+            accessibleFields.addAll(parent.getAccessibleFieldNames());
+        }
+        for (T interfaceType : hierarchy.getInterfaces(type)) {
+            InheritedMembers parent = get(interfaceType);
+            inheritedMethods.addAll(parent.getAccessibleMethodSignatures());
+            accessibleFields.addAll(parent.getAccessibleFieldNames());
+        }
+
+        Set<MethodSignature> accessibleMethods = new HashSet<>(inheritedMethods);
+        accessibleMethods.addAll(hierarchy.getDeclaredMethodSignatures(type));
+        return new InheritedMembers(inheritedMethods, accessibleMethods, accessibleFields);
+    }
+}
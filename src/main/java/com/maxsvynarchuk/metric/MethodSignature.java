@@ -0,0 +1,70 @@
+package com.maxsvynarchuk.metric;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+/**
+ * Interned hash key for a method: its name plus the JVM descriptor of its parameter types.
+ * Two methods share a signature exactly when {@link ReflectionHelper#equalMethods} considers them equal,
+ * which lets member sets be deduplicated through hash lookups instead of pairwise comparison.
+ */
+@Getter
+@EqualsAndHashCode
+public final class MethodSignature {
+    private static final Interner<MethodSignature> INTERNER = Interners.newWeakInterner();
+
+    private final String name;
+    private final String parameterDescriptor;
+
+    private MethodSignature(String name, String parameterDescriptor) {
+        this.name = Objects.requireNonNull(name);
+        this.parameterDescriptor = Objects.requireNonNull(parameterDescriptor);
+    }
+
+    public static MethodSignature of(Method method) {
+        StringBuilder parameterDescriptor = new StringBuilder("(");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            appendDescriptor(parameterDescriptor, parameterType);
+        }
+        return INTERNER.intern(new MethodSignature(method.getName(), parameterDescriptor.append(')').toString()));
+    }
+
+    /**
+     * @param descriptor full method descriptor as found in a class file, e.g. {@code "(ILjava/lang/String;)V"}
+     */
+    public static MethodSignature of(String name, String descriptor) {
+        return INTERNER.intern(new MethodSignature(name, descriptor.substring(0, descriptor.indexOf(')') + 1)));
+    }
+
+    private static void appendDescriptor(StringBuilder sb, Class<?> type) {
+        if (type.isArray()) {
+            sb.append(type.getName().replace('.', '/'));
+        } else if (type.isPrimitive()) {
+            sb.append(primitiveDescriptor(type));
+        } else {
+            sb.append('L').append(type.getName().replace('.', '/')).append(';');
+        }
+    }
+
+    private static char primitiveDescriptor(Class<?> type) {
+        if (type == int.class) return 'I';
+        if (type == long.class) return 'J';
+        if (type == boolean.class) return 'Z';
+        if (type == byte.class) return 'B';
+        if (type == char.class) return 'C';
+        if (type == short.class) return 'S';
+        if (type == float.class) return 'F';
+        if (type == double.class) return 'D';
+        return 'V';
+    }
+
+    @Override
+    public String toString() {
+        return name + parameterDescriptor;
+    }
+}
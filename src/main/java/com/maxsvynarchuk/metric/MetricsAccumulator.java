@@ -0,0 +1,136 @@
+package com.maxsvynarchuk.metric;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Folds per-class metrics into the sums behind the five MOOD factors in a single pass.
+ * <p>
+ * The accumulator keeps no reference to the classes it has seen, so its size does not depend on
+ * how many were added. Partial accumulators can be combined with {@link #merge}. Not thread-safe;
+ * give every thread its own instance and merge them afterwards.
+ */
+@Getter
+public class MetricsAccumulator {
+    private long numOfClasses;
+    private int maxDepthOfInheritanceTree = -1;
+    private long sumOfNumOfChildren;
+
+    private long sumOfInheritedAndNonOverrideMethods;
+    private long sumOfAccessibleMethods;
+
+    private long sumOfPrivateMethods;
+    private long sumOfOpenMethods;
+
+    private long sumOfPrivateFields;
+    private long sumOfFields;
+
+    private long sumOfInheritedAndNonOverrideFields;
+    private long sumOfAccessibleFields;
+
+    private long sumOfInheritedAndOverrideMethods;
+    private long newMethodsCoefficient;
+
+    public static Collector<ClassMetrics, MetricsAccumulator, MetricsAccumulator> collector() {
+        return Collector.of(MetricsAccumulator::new, MetricsAccumulator::add, MetricsAccumulator::merge);
+    }
+
+    public void add(ClassMetrics cm) {
+        numOfClasses++;
+        maxDepthOfInheritanceTree = Math.max(maxDepthOfInheritanceTree, cm.getDepthOfInheritanceTree());
+        sumOfNumOfChildren += cm.getNumOfChildren();
+        sumOfInheritedAndNonOverrideMethods += cm.getNumOfInheritedAndNonOverrideMethods();
+        sumOfAccessibleMethods += cm.getNumOfAccessibleMethods();
+        sumOfPrivateMethods += cm.getNumOfPrivateMethods();
+        sumOfOpenMethods += cm.getNumOfOpenMethods();
+        sumOfPrivateFields += cm.getNumOfPrivateFields();
+        sumOfFields += cm.getNumOfFields();
+        sumOfInheritedAndNonOverrideFields += cm.getNumOfInheritedAndNonOverrideFields();
+        sumOfAccessibleFields += cm.getNumOfAccessibleFields();
+        sumOfInheritedAndOverrideMethods += cm.getNumOfInheritedAndOverrideMethods();
+        newMethodsCoefficient += (long) cm.getNumOfNewMethods() * cm.getNumOfChildren();
+    }
+
+    /**
+     * Withdraws a class that was added before, e.g. to add it again with updated metrics.
+     * {@link #getMaxDepthOfInheritanceTree()} is not lowered: the accumulator does not know
+     * the depths of the remaining classes.
+     */
+    public void remove(ClassMetrics cm) {
+        numOfClasses--;
+        sumOfNumOfChildren -= cm.getNumOfChildren();
+        sumOfInheritedAndNonOverrideMethods -= cm.getNumOfInheritedAndNonOverrideMethods();
+        sumOfAccessibleMethods -= cm.getNumOfAccessibleMethods();
+        sumOfPrivateMethods -= cm.getNumOfPrivateMethods();
+        sumOfOpenMethods -= cm.getNumOfOpenMethods();
+        sumOfPrivateFields -= cm.getNumOfPrivateFields();
+        sumOfFields -= cm.getNumOfFields();
+        sumOfInheritedAndNonOverrideFields -= cm.getNumOfInheritedAndNonOverrideFields();
+        sumOfAccessibleFields -= cm.getNumOfAccessibleFields();
+        sumOfInheritedAndOverrideMethods -= cm.getNumOfInheritedAndOverrideMethods();
+        newMethodsCoefficient -= (long) cm.getNumOfNewMethods() * cm.getNumOfChildren();
+    }
+
+    /**
+     * Same as {@link #add(ClassMetrics)} for row {@code index} of {@code table}, but reads the table's
+     * primitive columns directly instead of materializing an object.
+     */
+    public void add(MetricsTable table, int index) {
+        numOfClasses++;
+        maxDepthOfInheritanceTree = Math.max(maxDepthOfInheritanceTree, table.getDepthOfInheritanceTree(index));
+        sumOfNumOfChildren += table.getNumOfChildren(index);
+        sumOfInheritedAndNonOverrideMethods += table.getNumOfInheritedAndNonOverrideMethods(index);
+        sumOfAccessibleMethods += table.getNumOfAccessibleMethods(index);
+        sumOfPrivateMethods += table.getNumOfPrivateMethods(index);
+        sumOfOpenMethods += table.getNumOfOpenMethods(index);
+        sumOfPrivateFields += table.getNumOfPrivateFields(index);
+        sumOfFields += table.getNumOfFields(index);
+        sumOfInheritedAndNonOverrideFields += table.getNumOfInheritedAndNonOverrideFields(index);
+        sumOfAccessibleFields += table.getNumOfAccessibleFields(index);
+        sumOfInheritedAndOverrideMethods += table.getNumOfInheritedAndOverrideMethods(index);
+        newMethodsCoefficient += (long) table.getNumOfNewMethods(index) * table.getNumOfChildren(index);
+    }
+
+    public MetricsAccumulator merge(MetricsAccumulator other) {
+        numOfClasses += other.numOfClasses;
+        maxDepthOfInheritanceTree = Math.max(maxDepthOfInheritanceTree, other.maxDepthOfInheritanceTree);
+        sumOfNumOfChildren += other.sumOfNumOfChildren;
+        sumOfInheritedAndNonOverrideMethods += other.sumOfInheritedAndNonOverrideMethods;
+        sumOfAccessibleMethods += other.sumOfAccessibleMethods;
+        sumOfPrivateMethods += other.sumOfPrivateMethods;
+        sumOfOpenMethods += other.sumOfOpenMethods;
+        sumOfPrivateFields += other.sumOfPrivateFields;
+        sumOfFields += other.sumOfFields;
+        sumOfInheritedAndNonOverrideFields += other.sumOfInheritedAndNonOverrideFields;
+        sumOfAccessibleFields += other.sumOfAccessibleFields;
+        sumOfInheritedAndOverrideMethods += other.sumOfInheritedAndOverrideMethods;
+        newMethodsCoefficient += other.newMethodsCoefficient;
+        return this;
+    }
+
+    public Result toResult(List<ClassMetrics> classMetrics) {
+        return Result.builder()
+                .classMetrics(classMetrics)
+                .numOfClasses(numOfClasses)
+                .maxDepthOfInheritanceTree(maxDepthOfInheritanceTree)
+                .sumOfNumOfChildren(sumOfNumOfChildren)
+                .sumOfInheritedAndNonOverrideMethods(sumOfInheritedAndNonOverrideMethods)
+                .sumOfAccessibleMethods(sumOfAccessibleMethods)
+                .methodInheritanceFactor((double) sumOfInheritedAndNonOverrideMethods / sumOfAccessibleMethods)
+                .sumOfPrivateMethods(sumOfPrivateMethods)
+                .sumOfOpenMethods(sumOfOpenMethods)
+                .methodHidingFactor((double) sumOfPrivateMethods / (sumOfPrivateMethods + sumOfOpenMethods))
+                .sumOfPrivateFields(sumOfPrivateFields)
+                .sumOfFields(sumOfFields)
+                .attributeHidingFactor((double) sumOfPrivateFields / sumOfFields)
+                .sumOfInheritedAndNonOverrideFields(sumOfInheritedAndNonOverrideFields)
+                .sumOfAccessibleFields(sumOfAccessibleFields)
+                .attributeInheritanceFactor((double) sumOfInheritedAndNonOverrideFields / sumOfAccessibleFields)
+                .sumOfInheritedAndOverrideMethods(sumOfInheritedAndOverrideMethods)
+                .newMethodsCoefficient(newMethodsCoefficient)
+                .polymorphismObjectFactor((double) sumOfInheritedAndOverrideMethods / newMethodsCoefficient)
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.maxsvynarchuk.metric;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk store of per-class metrics between runs.
+ * <p>
+ * Every entry is keyed by the hierarchy hash of its class, i.e. the content hash of the class file
+ * folded with the hashes of all of its supertypes, so an entry becomes stale as soon as the class or
+ * any ancestor changes. The number of children is not stored: it depends on the subtypes, which are
+ * re-read from the reverse edges of each fresh scan instead.
+ */
+public class MetricsCache {
+    private static final int MAGIC = 0x4D4F4F44;
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private MetricsCache(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return empty cache that lives as long as the instance, e.g. to share metrics between two analyses
+     */
+    public static MetricsCache inMemory() {
+        return new MetricsCache(null);
+    }
+
+    /**
+     * Reads the cache from {@code file}. A missing, foreign or corrupt file yields an empty cache.
+     */
+    public static MetricsCache load(Path file) {
+        MetricsCache cache = new MetricsCache(Objects.requireNonNull(file));
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return cache;
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String className = in.readUTF();
+                String key = in.readUTF();
+                int[] values = new int[Entry.SIZE];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = in.readInt();
+                }
+                cache.entries.put(className, new Entry(key, values));
+            }
+        } catch (NoSuchFileException e) {
+            return cache;
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable metrics cache " + file + ": " + e);
+            cache.entries.clear();
+        }
+        return cache;
+    }
+
+    /**
+     * @return cached metrics without the number of children, or {@code null} if absent or stale
+     */
+    public ClassMetrics get(String className, String key) {
+        Entry entry = entries.get(className);
+        if (Objects.isNull(entry) || !entry.key.equals(key)) {
+            return null;
+        }
+        return entry.toClassMetrics(className);
+    }
+
+    public void put(String key, ClassMetrics classMetrics) {
+        entries.put(classMetrics.getClassName(), new Entry(key, classMetrics));
+    }
+
+    /**
+     * Drops entries of classes that are no longer part of the analyzed set.
+     */
+    public void retainAll(Collection<String> classNames) {
+        Set<String> retained = new HashSet<>(classNames);
+        entries.keySet().removeIf(className -> !retained.contains(className));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return whether the cache was {@link #load loaded} from a file it can be {@link #save saved} to
+     */
+    public boolean isPersistent() {
+        return Objects.nonNull(file);
+    }
+
+    public void save() throws IOException {
+        if (!isPersistent()) {
+            throw new IllegalStateException("In-memory metrics cache cannot be saved");
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (Objects.nonNull(parent)) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            Map<String, Entry> snapshot = Map.copyOf(entries);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> e : snapshot.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeUTF(e.getValue().key);
+                for (int value : e.getValue().values) {
+                    out.writeInt(value);
+                }
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static class Entry {
+        static final int SIZE = 11;
+
+        final String key;
+        final int[] values;
+
+        Entry(String key, int[] values) {
+            this.key = key;
+            this.values = values;
+        }
+
+        Entry(String key, ClassMetrics cm) {
+            this(key, new int[]{
+                    cm.getDepthOfInheritanceTree(),
+                    cm.getNumOfInheritedAndNonOverrideMethods(),
+                    cm.getNumOfAccessibleMethods(),
+                    cm.getNumOfPrivateMethods(),
+                    cm.getNumOfOpenMethods(),
+                    cm.getNumOfInheritedAndNonOverrideFields(),
+                    cm.getNumOfAccessibleFields(),
+                    cm.getNumOfPrivateFields(),
+                    cm.getNumOfFields(),
+                    cm.getNumOfInheritedAndOverrideMethods(),
+                    cm.getNumOfNewMethods()});
+        }
+
+        ClassMetrics toClassMetrics(String className) {
+            ClassMetrics cm = new ClassMetrics(className);
+            cm.setDepthOfInheritanceTree(values[0]);
+            cm.setNumOfInheritedAndNonOverrideMethods(values[1]);
+            cm.setNumOfAccessibleMethods(values[2]);
+            cm.setNumOfPrivateMethods(values[3]);
+            cm.setNumOfOpenMethods(values[4]);
+            cm.setNumOfInheritedAndNonOverrideFields(values[5]);
+            cm.setNumOfAccessibleFields(values[6]);
+            cm.setNumOfPrivateFields(values[7]);
+            cm.setNumOfFields(values[8]);
+            cm.setNumOfInheritedAndOverrideMethods(values[9]);
+            cm.setNumOfNewMethods(values[10]);
+            return cm;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.maxsvynarchuk.metric;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-class metrics stored column by column in primitive arrays, one row per class.
+ * <p>
+ * Unlike a list of {@link ClassMetrics} the table holds no {@link Class} references and a
+ * constant number of objects regardless of how many classes it contains. Class names are
+ * interned, so tables built from the same scan share their name strings.
+ */
+public final class MetricsTable {
+    private static final Interner<String> CLASS_NAMES = Interners.newWeakInterner();
+
+    private static final int DEPTH_OF_INHERITANCE_TREE = 0;
+    private static final int NUM_OF_CHILDREN = 1;
+    private static final int NUM_OF_INHERITED_AND_NON_OVERRIDE_METHODS = 2;
+    private static final int NUM_OF_ACCESSIBLE_METHODS = 3;
+    private static final int NUM_OF_PRIVATE_METHODS = 4;
+    private static final int NUM_OF_OPEN_METHODS = 5;
+    private static final int NUM_OF_INHERITED_AND_NON_OVERRIDE_FIELDS = 6;
+    private static final int NUM_OF_ACCESSIBLE_FIELDS = 7;
+    private static final int NUM_OF_PRIVATE_FIELDS = 8;
+    private static final int NUM_OF_FIELDS = 9;
+    private static final int NUM_OF_INHERITED_AND_OVERRIDE_METHODS = 10;
+    private static final int NUM_OF_NEW_METHODS = 11;
+    private static final int NUM_OF_COLUMNS = 12;
+
+    private final int size;
+    private final String[] classNames;
+    private final int[][] columns;
+    /**
+     * Columns of plugin metrics by name; rows of classes without a value hold {@code 0}.
+     */
+    private final Map<String, int[]> additionalColumns;
+    private volatile Map<String, Integer> indexByClassName;
+
+    private MetricsTable(int size, String[] classNames, int[][] columns, Map<String, int[]> additionalColumns) {
+        this.size = size;
+        this.classNames = classNames;
+        this.columns = columns;
+        this.additionalColumns = additionalColumns;
+    }
+
+    public static MetricsTable of(List<ClassMetrics> classMetrics) {
+        Builder builder = new Builder(classMetrics.size());
+        classMetrics.forEach(builder::add);
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return row of {@code className}, or {@code -1} if the table has no such class
+     */
+    public int indexOf(String className) {
+        Map<String, Integer> index = indexByClassName;
+        if (Objects.isNull(index)) {
+            index = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                index.put(classNames[i], i);
+            }
+            indexByClassName = index;
+        }
+        return index.getOrDefault(className, -1);
+    }
+
+    public String getClassName(int index) {
+        return classNames[checkIndex(index)];
+    }
+
+    public int getDepthOfInheritanceTree(int index) {
+        return get(DEPTH_OF_INHERITANCE_TREE, index);
+    }
+
+    public int getNumOfChildren(int index) {
+        return get(NUM_OF_CHILDREN, index);
+    }
+
+    public int getNumOfInheritedAndNonOverrideMethods(int index) {
+        return get(NUM_OF_INHERITED_AND_NON_OVERRIDE_METHODS, index);
+    }
+
+    public int getNumOfAccessibleMethods(int index) {
+        return get(NUM_OF_ACCESSIBLE_METHODS, index);
+    }
+
+    public int getNumOfPrivateMethods(int index) {
+        return get(NUM_OF_PRIVATE_METHODS, index);
+    }
+
+    public int getNumOfOpenMethods(int index) {
+        return get(NUM_OF_OPEN_METHODS, index);
+    }
+
+    public int getNumOfInheritedAndNonOverrideFields(int index) {
+        return get(NUM_OF_INHERITED_AND_NON_OVERRIDE_FIELDS, index);
+    }
+
+    public int getNumOfAccessibleFields(int index) {
+        return get(NUM_OF_ACCESSIBLE_FIELDS, index);
+    }
+
+    public int getNumOfPrivateFields(int index) {
+        return get(NUM_OF_PRIVATE_FIELDS, index);
+    }
+
+    public int getNumOfFields(int index) {
+        return get(NUM_OF_FIELDS, index);
+    }
+
+    public int getNumOfInheritedAndOverrideMethods(int index) {
+        return get(NUM_OF_INHERITED_AND_OVERRIDE_METHODS, index);
+    }
+
+    public int getNumOfNewMethods(int index) {
+        return get(NUM_OF_NEW_METHODS, index);
+    }
+
+    public Set<String> getAdditionalMetricNames() {
+        return additionalColumns.keySet();
+    }
+
+    /**
+     * @throws IllegalArgumentException if no class has a value for the metric {@code name}
+     */
+    public int getAdditionalMetric(int index, String name) {
+        int[] column = additionalColumns.get(name);
+        if (Objects.isNull(column)) {
+            throw new IllegalArgumentException("Unknown metric: " + name);
+        }
+        return column[checkIndex(index)];
+    }
+
+    /**
+     * @return whether row {@code index} holds the same values as row {@code otherIndex} of {@code other}
+     */
+    public boolean rowEquals(int index, MetricsTable other, int otherIndex) {
+        for (int column = 0; column < NUM_OF_COLUMNS; column++) {
+            if (get(column, index) != other.get(column, otherIndex)) {
+                return false;
+            }
+        }
+        if (!additionalColumns.keySet().equals(other.additionalColumns.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, int[]> column : additionalColumns.entrySet()) {
+            if (column.getValue()[index] != other.additionalColumns.get(column.getKey())[otherIndex]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a fresh {@link ClassMetrics} with the values of row {@code index}; it has no {@code clazz}
+     */
+    public ClassMetrics getClassMetrics(int index) {
+        ClassMetrics cm = new ClassMetrics(getClassName(index));
+        cm.setDepthOfInheritanceTree(getDepthOfInheritanceTree(index));
+        cm.setNumOfChildren(getNumOfChildren(index));
+        cm.setNumOfInheritedAndNonOverrideMethods(getNumOfInheritedAndNonOverrideMethods(index));
+        cm.setNumOfAccessibleMethods(getNumOfAccessibleMethods(index));
+        cm.setNumOfPrivateMethods(getNumOfPrivateMethods(index));
+        cm.setNumOfOpenMethods(getNumOfOpenMethods(index));
+        cm.setNumOfInheritedAndNonOverrideFields(getNumOfInheritedAndNonOverrideFields(index));
+        cm.setNumOfAccessibleFields(getNumOfAccessibleFields(index));
+        cm.setNumOfPrivateFields(getNumOfPrivateFields(index));
+        cm.setNumOfFields(getNumOfFields(index));
+        cm.setNumOfInheritedAndOverrideMethods(getNumOfInheritedAndOverrideMethods(index));
+        cm.setNumOfNewMethods(getNumOfNewMethods(index));
+        additionalColumns.forEach((name, column) -> cm.setAdditionalMetric(name, column[index]));
+        return cm;
+    }
+
+    /**
+     * @return read-only view that materializes a {@link ClassMetrics} per access: every {@code get} returns
+     * a new detached instance without {@code clazz}, and changes to it are not written back to the table
+     */
+    public List<ClassMetrics> asClassMetricsList() {
+        return new AbstractList<>() {
+            @Override
+            public ClassMetrics get(int index) {
+                return getClassMetrics(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int get(int column, int index) {
+        return columns[column][checkIndex(index)];
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    /**
+     * Appends rows to growing column arrays. Not thread-safe.
+     */
+    public static final class Builder {
+        private int size;
+        private String[] classNames;
+        private final int[][] columns = new int[NUM_OF_COLUMNS][];
+        private final Map<String, int[]> additionalColumns = new TreeMap<>();
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            classNames = new String[capacity];
+            for (int column = 0; column < NUM_OF_COLUMNS; column++) {
+                columns[column] = new int[capacity];
+            }
+        }
+
+        public Builder add(ClassMetrics cm) {
+            if (size == classNames.length) {
+                grow();
+            }
+            classNames[size] = CLASS_NAMES.intern(cm.getClassName());
+            columns[DEPTH_OF_INHERITANCE_TREE][size] = cm.getDepthOfInheritanceTree();
+            columns[NUM_OF_CHILDREN][size] = cm.getNumOfChildren();
+            columns[NUM_OF_INHERITED_AND_NON_OVERRIDE_METHODS][size] = cm.getNumOfInheritedAndNonOverrideMethods();
+            columns[NUM_OF_ACCESSIBLE_METHODS][size] = cm.getNumOfAccessibleMethods();
+            columns[NUM_OF_PRIVATE_METHODS][size] = cm.getNumOfPrivateMethods();
+            columns[NUM_OF_OPEN_METHODS][size] = cm.getNumOfOpenMethods();
+            columns[NUM_OF_INHERITED_AND_NON_OVERRIDE_FIELDS][size] = cm.getNumOfInheritedAndNonOverrideFields();
+            columns[NUM_OF_ACCESSIBLE_FIELDS][size] = cm.getNumOfAccessibleFields();
+            columns[NUM_OF_PRIVATE_FIELDS][size] = cm.getNumOfPrivateFields();
+            columns[NUM_OF_FIELDS][size] = cm.getNumOfFields();
+            columns[NUM_OF_INHERITED_AND_OVERRIDE_METHODS][size] = cm.getNumOfInheritedAndOverrideMethods();
+            columns[NUM_OF_NEW_METHODS][size] = cm.getNumOfNewMethods();
+            cm.getAdditionalMetrics().forEach((name, value) -> additionalColumns
+                    .computeIfAbsent(name, n -> new int[classNames.length])[size] = value);
+            size++;
+            return this;
+        }
+
+        public MetricsTable build() {
+            int[][] trimmed = new int[NUM_OF_COLUMNS][];
+            for (int column = 0; column < NUM_OF_COLUMNS; column++) {
+                trimmed[column] = Arrays.copyOf(columns[column], size);
+            }
+            Map<String, int[]> trimmedAdditional = new TreeMap<>();
+            additionalColumns.forEach((name, column) -> trimmedAdditional.put(name, Arrays.copyOf(column, size)));
+            return new MetricsTable(size, Arrays.copyOf(classNames, size), trimmed,
+                    Collections.unmodifiableMap(trimmedAdditional));
+        }
+
+        private void grow() {
+            int capacity = classNames.length * 2;
+            classNames = Arrays.copyOf(classNames, capacity);
+            for (int column = 0; column < NUM_OF_COLUMNS; column++) {
+                columns[column] = Arrays.copyOf(columns[column], capacity);
+            }
+            additionalColumns.replaceAll((name, column) -> Arrays.copyOf(column, capacity));
+        }
+    }
+}
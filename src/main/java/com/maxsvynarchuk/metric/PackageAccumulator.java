@@ -0,0 +1,108 @@
+package com.maxsvynarchuk.metric;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Sums the metrics of every class into its own package while classes stream by, then rolls the packages
+ * up into a {@link PackageMetrics} tree.
+ * <p>
+ * The roll-up is one bottom-up reduction on the common fork-join pool: every package forks its
+ * sub-packages and merges their sums into its own, so each class is added once however deep it lies.
+ * Not thread-safe while adding.
+ */
+final class PackageAccumulator {
+    private final Map<String, MetricsAccumulator> accumulators = new HashMap<>();
+    private String lastPackageName;
+    private MetricsAccumulator lastAccumulator;
+
+    void add(ClassMetrics cm) {
+        getAccumulator(cm.getClassName()).add(cm);
+    }
+
+    void addAll(MetricsTable table) {
+        for (int i = 0; i < table.size(); i++) {
+            getAccumulator(table.getClassName(i)).add(table, i);
+        }
+    }
+
+    PackageMetrics build() {
+        Map<String, TreeSet<String>> subPackages = new HashMap<>();
+        for (String packageName : accumulators.keySet()) {
+            for (String name = packageName; !name.isEmpty(); ) {
+                String parentName = getParentName(name);
+                if (!subPackages.computeIfAbsent(parentName, k -> new TreeSet<>()).add(name)) {
+                    break;
+                }
+                name = parentName;
+            }
+        }
+        // descend from the unnamed package while a package has no classes and a single sub-package
+        String rootName = "";
+        while (!accumulators.containsKey(rootName) && subPackages.getOrDefault(rootName, new TreeSet<>()).size() == 1) {
+            rootName = subPackages.get(rootName).first();
+        }
+        return new RollUp(rootName, subPackages).invoke();
+    }
+
+    private MetricsAccumulator getAccumulator(String className) {
+        int separator = className.lastIndexOf('.');
+        // classes usually arrive sorted by name, so consecutive ones share their package
+        if (Objects.nonNull(lastPackageName)
+                && lastPackageName.length() == Math.max(separator, 0)
+                && className.startsWith(lastPackageName)) {
+            return lastAccumulator;
+        }
+        lastPackageName = separator < 0 ? "" : className.substring(0, separator);
+        lastAccumulator = accumulators.computeIfAbsent(lastPackageName, k -> new MetricsAccumulator());
+        return lastAccumulator;
+    }
+
+    /**
+     * @return enclosing package of a class or package, {@code ""} for top-level names
+     */
+    private static String getParentName(String name) {
+        int separator = name.lastIndexOf('.');
+        return separator < 0 ? "" : name.substring(0, separator);
+    }
+
+    private final class RollUp extends RecursiveTask<PackageMetrics> {
+        private static final long serialVersionUID = 1L;
+
+        private final String packageName;
+        private final Map<String, TreeSet<String>> subPackages;
+
+        RollUp(String packageName, Map<String, TreeSet<String>> subPackages) {
+            this.packageName = packageName;
+            this.subPackages = subPackages;
+        }
+
+        @Override
+        protected PackageMetrics compute() {
+            List<RollUp> tasks = new ArrayList<>();
+            for (String subPackageName : subPackages.getOrDefault(packageName, new TreeSet<>())) {
+                RollUp task = new RollUp(subPackageName, subPackages);
+                task.fork();
+                tasks.add(task);
+            }
+            MetricsAccumulator accumulator = new MetricsAccumulator();
+            MetricsAccumulator own = accumulators.get(packageName);
+            if (Objects.nonNull(own)) {
+                accumulator.merge(own);
+            }
+            List<PackageMetrics> children = new ArrayList<>();
+            for (RollUp task : tasks) {
+                PackageMetrics child = task.join();
+                accumulator.merge(child.getAccumulator());
+                children.add(child);
+            }
+            return new PackageMetrics(packageName, accumulator, children);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.maxsvynarchuk.metric;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * MOOD factors of one package together with all of its sub-packages, and the same for each sub-package.
+ * The root is the deepest package that contains every analyzed class.
+ */
+@Getter
+public final class PackageMetrics {
+    private final String packageName;
+    /**
+     * Sums and factors over the classes of this package and its sub-packages; holds no per-class metrics.
+     */
+    private final Result result;
+    /**
+     * Direct sub-packages ordered by name, including intermediate ones without classes of their own.
+     */
+    private final List<PackageMetrics> subPackages;
+    @Getter(AccessLevel.PACKAGE)
+    private final MetricsAccumulator accumulator;
+
+    PackageMetrics(String packageName, MetricsAccumulator accumulator, List<PackageMetrics> subPackages) {
+        this.packageName = packageName;
+        this.accumulator = accumulator;
+        this.result = accumulator.toResult(List.of());
+        this.subPackages = List.copyOf(subPackages);
+    }
+
+    /**
+     * Rolls up the rows of {@code table}; see {@link PackageAccumulator}.
+     */
+    public static PackageMetrics of(MetricsTable table) {
+        PackageAccumulator packages = new PackageAccumulator();
+        packages.addAll(table);
+        return packages.build();
+    }
+
+    /**
+     * @return this package or the sub-package named {@code packageName} at any depth
+     */
+    public Optional<PackageMetrics> find(String packageName) {
+        if (this.packageName.equals(packageName)) {
+            return Optional.of(this);
+        }
+        for (PackageMetrics subPackage : subPackages) {
+            if (isWithin(packageName, subPackage.packageName)) {
+                return subPackage.find(packageName);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return this package and all sub-packages, each before its own sub-packages
+     */
+    public List<PackageMetrics> flatten() {
+        List<PackageMetrics> packages = new ArrayList<>();
+        flatten(packages);
+        return packages;
+    }
+
+    private void flatten(List<PackageMetrics> packages) {
+        packages.add(this);
+        subPackages.forEach(subPackage -> subPackage.flatten(packages));
+    }
+
+    static boolean isWithin(String packageName, String ancestorName) {
+        return ancestorName.isEmpty()
+                || packageName.equals(ancestorName)
+                || packageName.startsWith(ancestorName) && packageName.charAt(ancestorName.length()) == '.';
+    }
+
+    @Override
+    public String toString() {
+        return "PackageMetrics(" + packageName + ", numOfClasses=" + result.getNumOfClasses()
+                + ", subPackages=" + subPackages.size() + ")";
+    }
+}
@@ -6,8 +6,11 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -29,13 +32,11 @@ public class ReflectionHelper {
 
     public static Set<Method> getAccessibleMethods(Class<?> clazz) {
         Set<Method> allMethodsFromSupertypes = ReflectionUtils.getAllMethods(clazz, getMethodModifiersPredicate());
-        Set<Method> accessibleMethods = new HashSet<>();
-        for (Method m1 : allMethodsFromSupertypes) {
-            if (accessibleMethods.stream().noneMatch(m2 -> equalMethods(m1, m2))) {
-                accessibleMethods.add(m1);
-            }
+        Map<MethodSignature, Method> accessibleMethods = new HashMap<>();
+        for (Method method : allMethodsFromSupertypes) {
+            accessibleMethods.putIfAbsent(MethodSignature.of(method), method);
         }
-        return accessibleMethods;
+        return new HashSet<>(accessibleMethods.values());
     }
 
     public static Set<Method> getDeclaredMethods(Class<?> clazz) {
@@ -52,32 +53,29 @@ public class ReflectionHelper {
         if (Objects.isNull(clazz.getSuperclass()) && clazz.getInterfaces().length == 0)
             return Collections.emptySet();
 
-        Set<Method> allMethodsFromSupertypes = new HashSet<>();
+        Set<MethodSignature> signaturesFromSupertypes = new HashSet<>();
         if (Objects.nonNull(clazz.getSuperclass())) {
-            allMethodsFromSupertypes.addAll(getAccessibleMethods(clazz.getSuperclass()));
+            signaturesFromSupertypes.addAll(getMethodSignatures(getAccessibleMethods(clazz.getSuperclass())));
         }
         if (clazz.getInterfaces().length != 0) {
             for (Class<?> interfaceClass: clazz.getInterfaces()) {
-                allMethodsFromSupertypes.addAll(getAccessibleMethods(interfaceClass));
+                signaturesFromSupertypes.addAll(getMethodSignatures(getAccessibleMethods(interfaceClass)));
             }
         }
 
         Set<Method> declaredMethods = getDeclaredMethods(clazz);
         return declaredMethods.stream()
-                .filter(m1 -> allMethodsFromSupertypes.stream()
-                        .anyMatch(m2 -> equalMethods(m1, m2)))
+                .filter(m -> signaturesFromSupertypes.contains(MethodSignature.of(m)))
                 .collect(Collectors.toUnmodifiableSet());
     }
 
     public static Set<Field> getAccessibleFields(Class<?> clazz) {
         Set<Field> allFieldsFromSupertypes = ReflectionUtils.getAllFields(clazz, getFieldModifiersPredicate());
-        Set<Field> accessibleFields = new HashSet<>();
-        for (Field f1 : allFieldsFromSupertypes) {
-            if (accessibleFields.stream().noneMatch(f2 -> equalFields(f1, f2))) {
-                accessibleFields.add(f1);
-            }
+        Map<String, Field> accessibleFields = new HashMap<>();
+        for (Field field : allFieldsFromSupertypes) {
+            accessibleFields.putIfAbsent(field.getName(), field);
         }
-        return accessibleFields;
+        return new HashSet<>(accessibleFields.values());
     }
 
     public static Set<Field> getDeclaredForInheritanceFields(Class<?> clazz) {
@@ -109,6 +107,22 @@ public class ReflectionHelper {
                 .collect(Collectors.toUnmodifiableSet());
     }
 
+    public static Set<MethodSignature> getMethodSignatures(Collection<Method> methods) {
+        Set<MethodSignature> signatures = new HashSet<>();
+        for (Method method : methods) {
+            signatures.add(MethodSignature.of(method));
+        }
+        return signatures;
+    }
+
+    public static Set<String> getFieldNames(Collection<Field> fields) {
+        Set<String> names = new HashSet<>();
+        for (Field field : fields) {
+            names.add(field.getName());
+        }
+        return names;
+    }
+
     public static boolean equalMethods(Method m1, Method m2) {
         if (m1 == null || m2 == null) return false;
         if (m1 == m2) return true;
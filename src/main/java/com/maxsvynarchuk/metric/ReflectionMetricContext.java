@@ -0,0 +1,49 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.plugin.MetricInput;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.maxsvynarchuk.metric.ReflectionHelper.*;
+
+class ReflectionMetricContext extends AbstractMetricContext<Class<?>> {
+
+    ReflectionMetricContext(Class<?> clazz, Set<MetricInput> inputs, HierarchyIndex hierarchyIndex,
+                            InheritedMembersCache<Class<?>> inheritedMembersCache) {
+        super(clazz, clazz.getName(), inputs, hierarchyIndex, inheritedMembersCache);
+    }
+
+    @Override
+    protected List<MethodSignature> readDeclaredMethodSignatures() {
+        return getDeclaredMethods(type).stream()
+                .map(MethodSignature::of)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    protected int countPrivateMethods() {
+        return getPrivateMethods(type).size();
+    }
+
+    @Override
+    protected int countOpenMethods() {
+        return getOpenMethods(type).size();
+    }
+
+    @Override
+    protected Set<String> readDeclaredForInheritanceFieldNames() {
+        return getFieldNames(getDeclaredForInheritanceFields(type));
+    }
+
+    @Override
+    protected int countPrivateFields() {
+        return getPrivateFields(type).size();
+    }
+
+    @Override
+    protected int countFields() {
+        return getAllDeclaredFields(type).size();
+    }
+}
@@ -0,0 +1,42 @@
+package com.maxsvynarchuk.metric;
+
+import org.reflections.ReflectionUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static com.maxsvynarchuk.metric.ReflectionHelper.*;
+
+public class ReflectionTypeHierarchy implements TypeHierarchy<Class<?>> {
+
+    @Override
+    public Class<?> getSuperclass(Class<?> type) {
+        return type.getSuperclass();
+    }
+
+    @Override
+    public String getName(Class<?> type) {
+        return type.getName();
+    }
+
+    @Override
+    public Collection<Class<?>> getInterfaces(Class<?> type) {
+        return List.of(type.getInterfaces());
+    }
+
+    @Override
+    public boolean isObject(Class<?> type) {
+        return type == Object.class;
+    }
+
+    @Override
+    public Set<MethodSignature> getDeclaredMethodSignatures(Class<?> type) {
+        return getMethodSignatures(ReflectionUtils.getMethods(type, getMethodModifiersPredicate()));
+    }
+
+    @Override
+    public Set<String> getDeclaredFieldNames(Class<?> type) {
+        return getFieldNames(getDeclaredForInheritanceFields(type));
+    }
+}
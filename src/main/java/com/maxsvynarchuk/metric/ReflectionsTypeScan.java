@@ -0,0 +1,25 @@
+package com.maxsvynarchuk.metric;
+
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+
+import java.util.Objects;
+import java.util.Set;
+
+public class ReflectionsTypeScan implements TypeScan {
+    private final Reflections reflections;
+
+    public ReflectionsTypeScan(Reflections reflections) {
+        this.reflections = Objects.requireNonNull(reflections);
+    }
+
+    @Override
+    public Set<String> getAllTypes() {
+        return reflections.getAllTypes();
+    }
+
+    @Override
+    public Set<String> getSubTypes(String typeName) {
+        return reflections.getStore().get(SubTypesScanner.class, typeName);
+    }
+}
@@ -1,16 +1,55 @@
 package com.maxsvynarchuk.metric;
 
+import com.maxsvynarchuk.metric.plugin.BuiltInMetric;
+import com.maxsvynarchuk.metric.report.ReportFormat;
+import com.maxsvynarchuk.metric.report.ReportWriter;
+import com.maxsvynarchuk.metric.report.TextReportWriter;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Builder
 @Getter
 @Setter
 public class Result {
+    /**
+     * Analyzed classes. For results of an {@link Analyzer} this is a read-only view over
+     * {@link #metricsTable}: every element is a fresh copy of its row, so {@link ClassMetrics#getClazz()}
+     * is {@code null} and setters have no effect on the result.
+     */
     private List<ClassMetrics> classMetrics;
+    private MetricsTable metricsTable;
+    /**
+     * Built-in metrics that were selected; the per-class values and factors of the others are not measured.
+     */
+    @Builder.Default
+    private Set<BuiltInMetric> builtInMetrics = Set.of(BuiltInMetric.values());
+    private StatisticsSnapshot statistics;
+    /**
+     * MOOD factors per package, {@code null} for the summaries of packages themselves.
+     */
+    private PackageMetrics packageMetrics;
+    /**
+     * Classes a resilient run left out, ordered by name; not counted in {@link #numOfClasses}.
+     */
+    @Builder.Default
+    private List<SkippedClass> skippedClasses = List.of();
+    /**
+     * How the sums and factors were estimated from a sample, {@code null} when every class was analyzed.
+     */
+    private Estimate estimate;
+
+    private long numOfClasses;
+    private int maxDepthOfInheritanceTree;
+    private long sumOfNumOfChildren;
 
     private double sumOfInheritedAndNonOverrideMethods;
     private double sumOfAccessibleMethods;
@@ -32,91 +71,83 @@ public class Result {
     private double newMethodsCoefficient;
     private double polymorphismObjectFactor;
 
+    public int getNumOfSkippedClasses() {
+        return skippedClasses.size();
+    }
+
+    /**
+     * @return {@link #numOfClasses}, or the size of the sample the factors were {@link #estimate estimated} from
+     */
+    public long getNumOfAnalyzedClasses() {
+        return Objects.isNull(estimate) ? numOfClasses : estimate.getSampleSize();
+    }
+
+    /**
+     * @return share of the classes found, or sampled, that were analyzed; {@code 1} if none were skipped
+     */
+    public double getCoverage() {
+        long numOfAnalyzedClasses = getNumOfAnalyzedClasses();
+        return skippedClasses.isEmpty()
+                ? 1
+                : (double) numOfAnalyzedClasses / (numOfAnalyzedClasses + skippedClasses.size());
+    }
+
+    /**
+     * Prints the text report to {@code System.out} through one buffered write.
+     */
     public void printAll() {
-        printDepthOfInheritanceTree();
-        System.out.println();
-        printNumberOfChildren();
-        System.out.println();
-        printMethodInheritanceFactor();
-        System.out.println();
-        printMethodHidingFactor();
-        System.out.println();
-        printAttributeHidingFactor();
-        System.out.println();
-        printAttributeInheritanceFactor();
-        System.out.println();
-        printPolymorphismObjectFactor();
+        ReportWriter writer = ReportFormat.TEXT.create(new BufferedWriter(new OutputStreamWriter(System.out)));
+        try {
+            writer.writeReport(this);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     public void printDepthOfInheritanceTree() {
-        System.out.println(">>> Depth of Inheritance Tree:");
-        classMetrics.stream().filter(cm -> cm.getDepthOfInheritanceTree() >= 0)
-                .forEach(cm -> System.out.println(cm.getDepthOfInheritanceTree() + " > " + cm.getClassName()));
+        print(writer -> writer.writeDepthOfInheritanceTree(classMetrics));
     }
 
     public void printNumberOfChildren() {
-        System.out.println(">>> Number of children:");
-        classMetrics.forEach(cm -> System.out.println(cm.getNumOfChildren() + " > " + cm.getClassName()));
+        print(writer -> writer.writeNumberOfChildren(classMetrics));
     }
 
     public void printMethodInheritanceFactor() {
-        System.out.print(">>> Method Inheritance Factor: ");
-        if (Double.isNaN(methodInheritanceFactor)) {
-            System.out.println("No accessible methods");
-        } else {
-            System.out.printf("%f (%.0f / %.0f)\n",
-                    methodInheritanceFactor,
-                    sumOfInheritedAndNonOverrideMethods,
-                    sumOfAccessibleMethods);
-        }
+        print(writer -> writer.writeMethodInheritanceFactor(this));
     }
 
     public void printMethodHidingFactor() {
-        System.out.print(">>> Method Hiding Factor: ");
-        if (Double.isNaN(methodHidingFactor)) {
-            System.out.println("No accessible methods");
-        } else {
-            System.out.printf("%f (%.0f / [%.0f + %.0f])\n",
-                    methodHidingFactor,
-                    sumOfPrivateMethods,
-                    sumOfPrivateMethods,
-                    sumOfOpenMethods);
-        }
+        print(writer -> writer.writeMethodHidingFactor(this));
     }
 
     public void printAttributeHidingFactor() {
-        System.out.print(">>> Attribute Hiding Factor: ");
-        if (Double.isNaN(attributeHidingFactor)) {
-            System.out.println("No accessible fields");
-        } else {
-            System.out.printf("%f (%.0f / %.0f)\n",
-                    attributeHidingFactor,
-                    sumOfPrivateFields,
-                    sumOfFields);
-        }
+        print(writer -> writer.writeAttributeHidingFactor(this));
     }
 
     public void printAttributeInheritanceFactor() {
-        System.out.print(">>> Attribute Inheritance Factor: ");
-        if (Double.isNaN(attributeInheritanceFactor)) {
-            System.out.println("No accessible fields");
-        } else {
-            System.out.printf("%f (%.0f / %.0f)\n",
-                    attributeInheritanceFactor,
-                    sumOfInheritedAndNonOverrideFields,
-                    sumOfAccessibleFields);
-        }
+        print(writer -> writer.writeAttributeInheritanceFactor(this));
     }
 
     public void printPolymorphismObjectFactor() {
-        System.out.print(">>> Polymorphism Object Factor: ");
-        if (Double.isNaN(polymorphismObjectFactor)) {
-            System.out.println("No accessible methods");
-        } else {
-            System.out.printf("%f (%.0f / %.0f)\n",
-                    polymorphismObjectFactor,
-                    sumOfInheritedAndOverrideMethods,
-                    newMethodsCoefficient);
+        print(writer -> writer.writePolymorphismObjectFactor(this));
+    }
+
+    /**
+     * Prints one section of the text report to {@code System.out}, formatted as in {@link #printAll()}.
+     */
+    private void print(Section section) {
+        TextReportWriter writer = new TextReportWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+        try {
+            writer.startReport(builtInMetrics);
+            section.writeTo(writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
+
+    private interface Section {
+        void writeTo(TextReportWriter writer) throws IOException;
+    }
 }
@@ -0,0 +1,43 @@
+package com.maxsvynarchuk.metric;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Makes a run analyze a stratified random sample of the classes and estimate the MOOD factors from it,
+ * see {@link StratifiedSample}. Either a {@link #sampleSize} or a {@link #targetError} is set.
+ * <p>
+ * At least two classes of every stratum are analyzed, so the sample may be larger than asked for.
+ * Sampled runs do not use the {@link MetricsCache}.
+ */
+@Builder
+@Getter
+public class Sampling {
+    /**
+     * Number of classes to analyze; {@code 0} to grow the sample until {@link #targetError} is reached.
+     */
+    private final int sampleSize;
+
+    /**
+     * Largest half-width of the confidence interval of any factor, e.g. {@code 0.01}. The sample grows in rounds
+     * until every defined factor is within it, at worst until every class was analyzed.
+     */
+    private final double targetError;
+
+    @Builder.Default
+    private final double confidenceLevel = 0.95;
+
+    /**
+     * Equal seeds sample the same classes of the same scan.
+     */
+    private final long seed;
+
+    void validate() {
+        if (sampleSize < 0 || (sampleSize == 0 && !(targetError > 0))) {
+            throw new IllegalArgumentException("Sampling needs a positive sample size or target error");
+        }
+        if (!(confidenceLevel > 0 && confidenceLevel < 1)) {
+            throw new IllegalArgumentException("Confidence level must lie between 0 and 1: " + confidenceLevel);
+        }
+    }
+}
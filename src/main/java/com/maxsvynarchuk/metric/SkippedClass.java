@@ -0,0 +1,30 @@
+package com.maxsvynarchuk.metric;
+
+import com.google.common.base.Throwables;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A class that a {@link AnalyzerOptions#isResilient() resilient} run left out, and why.
+ */
+@Getter
+@ToString
+public class SkippedClass {
+    private final String className;
+    /**
+     * Type and message of the failure and of its root cause, e.g. {@code java.lang.NoClassDefFoundError:
+     * org/slf4j/Logger}; kept as text so that the result does not hold on to classes of the analyzed artifact.
+     */
+    private final String reason;
+
+    SkippedClass(String className, Throwable cause) {
+        this.className = className;
+        Throwable rootCause = Throwables.getRootCause(cause);
+        this.reason = rootCause == cause ? cause.toString() : cause + " caused by " + rootCause;
+    }
+
+    SkippedClass(String className, String reason) {
+        this.className = className;
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,39 @@
+package com.maxsvynarchuk.metric;
+
+import com.maxsvynarchuk.metric.AnalyzerStatistics.Phase;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable copy of {@link AnalyzerStatistics} taken when a run finishes.
+ */
+@Getter
+@ToString
+public class StatisticsSnapshot {
+    private final Map<Phase, Long> phaseNanos;
+    private final long numOfClassesAnalyzed;
+    private final long numOfClassesFromCache;
+    private final long numOfMethodsVisited;
+    private final long numOfFieldsVisited;
+    private final long numOfClassLoadFailures;
+
+    @Builder
+    private StatisticsSnapshot(Map<Phase, Long> phaseNanos, long numOfClassesAnalyzed, long numOfClassesFromCache,
+                               long numOfMethodsVisited, long numOfFieldsVisited, long numOfClassLoadFailures) {
+        this.phaseNanos = Collections.unmodifiableMap(new EnumMap<>(phaseNanos));
+        this.numOfClassesAnalyzed = numOfClassesAnalyzed;
+        this.numOfClassesFromCache = numOfClassesFromCache;
+        this.numOfMethodsVisited = numOfMethodsVisited;
+        this.numOfFieldsVisited = numOfFieldsVisited;
+        this.numOfClassLoadFailures = numOfClassLoadFailures;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos.getOrDefault(phase, 0L);
+    }
+}
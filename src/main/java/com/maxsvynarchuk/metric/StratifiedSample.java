@@ -0,0 +1,304 @@
+package com.maxsvynarchuk.metric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * A stratified random sample of the scanned classes, and the MOOD factors estimated from the classes of it
+ * that were analyzed.
+ * <p>
+ * Classes are stratified by package, by their {@link HierarchyIndex#getLevel level} in the scanned
+ * hierarchy, which stands in for the depth of inheritance tree because it is known without loading a class,
+ * and by whether they have subtypes, as only those contribute to the denominator of POF. Every stratum is
+ * shuffled once; the sample takes classes from the front of the strata, lowest sampling fraction first, so
+ * strata are sampled in proportion to their size and a grown sample keeps the classes sampled before.
+ * <p>
+ * A factor is a ratio of two sums over all classes, {@code Y / X}. It is estimated by the combined ratio
+ * estimator {@code R = sum(N_h * mean(y_h)) / sum(N_h * mean(x_h))} over the strata {@code h}, with the
+ * linearized variance {@code sum(N_h^2 * (1 - n_h / N_h) * s_h^2 / n_h) / X^2}, where {@code s_h^2} is the
+ * sample variance of {@code y - R * x} in stratum {@code h}, and the normal interval {@code R +- z * sqrt(variance)}.
+ * Sampled classes that could not be analyzed are taken out of {@code N_h}, as an exact run leaves failed classes
+ * out of its sums, so a sample of all classes yields the exact factors. Not thread-safe.
+ */
+final class StratifiedSample {
+    /**
+     * Size of the first round when the sample grows towards a target error.
+     */
+    static final int PILOT_SAMPLE_SIZE = 200;
+    /**
+     * The least a stratum needs for a variance.
+     */
+    private static final int MIN_CLASSES_PER_STRATUM = 2;
+
+    private final List<List<String>> strata;
+    private final int populationSize;
+    private final Map<String, Integer> stratumByClassName = new HashMap<>();
+    private final List<List<ClassMetrics>> analyzed = new ArrayList<>();
+    /**
+     * Number of classes sampled per stratum, the first ones of it.
+     */
+    private int[] taken;
+    private int sampleSize;
+
+    private StratifiedSample(List<List<String>> strata, int populationSize) {
+        this.strata = strata;
+        this.populationSize = populationSize;
+        this.taken = new int[strata.size()];
+        strata.forEach(stratum -> analyzed.add(new ArrayList<>()));
+    }
+
+    /**
+     * @param hierarchyIndex index of at least {@code classNames}; no depth of inheritance is read from it
+     */
+    static StratifiedSample of(List<String> classNames, HierarchyIndex hierarchyIndex, long seed) {
+        Map<String, List<String>> strataByKey = new TreeMap<>();
+        for (String className : classNames) {
+            int separator = className.lastIndexOf('.');
+            int index = hierarchyIndex.indexOf(className);
+            String key = (separator < 0 ? "" : className.substring(0, separator))
+                    + '/' + hierarchyIndex.getLevel(index)
+                    + (hierarchyIndex.getNumOfChildren(index) > 0 ? "/extended" : "");
+            strataByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(className);
+        }
+        Random random = new Random(seed);
+        List<List<String>> strata = new ArrayList<>(strataByKey.values());
+        for (List<String> stratum : strata) {
+            Collections.sort(stratum);
+            Collections.shuffle(stratum, random);
+        }
+        return new StratifiedSample(strata, classNames.size());
+    }
+
+    /**
+     * Extends the sample to {@code size} classes, or to all of them, and to at least
+     * {@link #MIN_CLASSES_PER_STRATUM} of every stratum.
+     *
+     * @return classes added to the sample, sorted by name
+     */
+    List<String> grow(int size) {
+        int[] allocation = taken.clone();
+        PriorityQueue<Integer> byFraction = new PriorityQueue<>(Comparator
+                .comparingDouble((Integer h) -> (double) allocation[h] / strata.get(h).size())
+                .thenComparingInt(h -> h));
+        int total = sampleSize;
+        for (int h = 0; h < strata.size(); h++) {
+            int minimum = Math.min(strata.get(h).size(), MIN_CLASSES_PER_STRATUM);
+            if (allocation[h] < minimum) {
+                total += minimum - allocation[h];
+                allocation[h] = minimum;
+            }
+            if (allocation[h] < strata.get(h).size()) {
+                byFraction.add(h);
+            }
+        }
+        while (total < size && !byFraction.isEmpty()) {
+            int h = byFraction.poll();
+            allocation[h]++;
+            total++;
+            if (allocation[h] < strata.get(h).size()) {
+                byFraction.add(h);
+            }
+        }
+
+        List<String> added = new ArrayList<>();
+        for (int h = 0; h < strata.size(); h++) {
+            for (String className : strata.get(h).subList(taken[h], allocation[h])) {
+                stratumByClassName.put(className, h);
+                added.add(className);
+            }
+        }
+        taken = allocation;
+        sampleSize = total;
+        Collections.sort(added);
+        return added;
+    }
+
+    /**
+     * Records a sampled class once it was analyzed; sampled classes never added count as not sampled.
+     */
+    void add(ClassMetrics cm) {
+        analyzed.get(stratumByClassName.get(cm.getClassName())).add(cm);
+    }
+
+    boolean isComplete() {
+        return sampleSize == populationSize;
+    }
+
+    /**
+     * @return sample size at which {@code estimate} would be within {@code targetError}, assuming the variances
+     * stay as they are; at least one class more than now, but at most twice as many, since the variances of
+     * a small sample are themselves rough
+     */
+    int getRequiredSampleSize(Estimate estimate, double targetError) {
+        double ratio = estimate.getMaxHalfWidth() / targetError;
+        double required = Math.min(Math.ceil(sampleSize * ratio * ratio), 2.0 * sampleSize);
+        return (int) Math.min(populationSize, Math.max(required, sampleSize + 1));
+    }
+
+    /**
+     * @return estimated sums and factors of all classes, with the {@link Estimate} they come from;
+     * {@link Result#getMaxDepthOfInheritanceTree()} is the deepest analyzed class
+     */
+    Result toResult(double confidenceLevel) {
+        double z = normalQuantile((1 + confidenceLevel) / 2);
+        long estimatedPopulationSize = 0;
+        int maxDepthOfInheritanceTree = -1;
+        int numOfAnalyzedClasses = 0;
+        for (int h = 0; h < strata.size(); h++) {
+            estimatedPopulationSize += getPopulationSize(h);
+            numOfAnalyzedClasses += analyzed.get(h).size();
+            for (ClassMetrics cm : analyzed.get(h)) {
+                maxDepthOfInheritanceTree = Math.max(maxDepthOfInheritanceTree, cm.getDepthOfInheritanceTree());
+            }
+        }
+
+        double sumOfInheritedAndNonOverrideMethods =
+                estimateTotal(ClassMetrics::getNumOfInheritedAndNonOverrideMethods);
+        double sumOfAccessibleMethods = estimateTotal(ClassMetrics::getNumOfAccessibleMethods);
+        double sumOfPrivateMethods = estimateTotal(ClassMetrics::getNumOfPrivateMethods);
+        double sumOfOpenMethods = estimateTotal(ClassMetrics::getNumOfOpenMethods);
+        double sumOfPrivateFields = estimateTotal(ClassMetrics::getNumOfPrivateFields);
+        double sumOfFields = estimateTotal(ClassMetrics::getNumOfFields);
+        double sumOfInheritedAndNonOverrideFields =
+                estimateTotal(ClassMetrics::getNumOfInheritedAndNonOverrideFields);
+        double sumOfAccessibleFields = estimateTotal(ClassMetrics::getNumOfAccessibleFields);
+        double sumOfInheritedAndOverrideMethods = estimateTotal(ClassMetrics::getNumOfInheritedAndOverrideMethods);
+        double newMethodsCoefficient = estimateTotal(StratifiedSample::getNewMethodsCoefficient);
+
+        Estimate estimate = Estimate.builder()
+                .populationSize(estimatedPopulationSize)
+                .sampleSize(numOfAnalyzedClasses)
+                .numOfStrata(strata.size())
+                .confidenceLevel(confidenceLevel)
+                .methodInheritanceFactor(estimateInterval(ClassMetrics::getNumOfInheritedAndNonOverrideMethods,
+                        ClassMetrics::getNumOfAccessibleMethods, z))
+                .methodHidingFactor(estimateInterval(ClassMetrics::getNumOfPrivateMethods,
+                        cm -> cm.getNumOfPrivateMethods() + cm.getNumOfOpenMethods(), z))
+                .attributeHidingFactor(estimateInterval(ClassMetrics::getNumOfPrivateFields,
+                        ClassMetrics::getNumOfFields, z))
+                .attributeInheritanceFactor(estimateInterval(ClassMetrics::getNumOfInheritedAndNonOverrideFields,
+                        ClassMetrics::getNumOfAccessibleFields, z))
+                .polymorphismObjectFactor(estimateInterval(ClassMetrics::getNumOfInheritedAndOverrideMethods,
+                        StratifiedSample::getNewMethodsCoefficient, z))
+                .build();
+        return Result.builder()
+                .classMetrics(List.of())
+                .estimate(estimate)
+                .numOfClasses(estimatedPopulationSize)
+                .maxDepthOfInheritanceTree(maxDepthOfInheritanceTree)
+                .sumOfNumOfChildren(Math.round(estimateTotal(ClassMetrics::getNumOfChildren)))
+                .sumOfInheritedAndNonOverrideMethods(sumOfInheritedAndNonOverrideMethods)
+                .sumOfAccessibleMethods(sumOfAccessibleMethods)
+                .methodInheritanceFactor(sumOfInheritedAndNonOverrideMethods / sumOfAccessibleMethods)
+                .sumOfPrivateMethods(sumOfPrivateMethods)
+                .sumOfOpenMethods(sumOfOpenMethods)
+                .methodHidingFactor(sumOfPrivateMethods / (sumOfPrivateMethods + sumOfOpenMethods))
+                .sumOfPrivateFields(sumOfPrivateFields)
+                .sumOfFields(sumOfFields)
+                .attributeHidingFactor(sumOfPrivateFields / sumOfFields)
+                .sumOfInheritedAndNonOverrideFields(sumOfInheritedAndNonOverrideFields)
+                .sumOfAccessibleFields(sumOfAccessibleFields)
+                .attributeInheritanceFactor(sumOfInheritedAndNonOverrideFields / sumOfAccessibleFields)
+                .sumOfInheritedAndOverrideMethods(sumOfInheritedAndOverrideMethods)
+                .newMethodsCoefficient(newMethodsCoefficient)
+                .polymorphismObjectFactor(sumOfInheritedAndOverrideMethods / newMethodsCoefficient)
+                .build();
+    }
+
+    /**
+     * @return classes of stratum {@code h} less the sampled ones that failed, {@code 0} if all sampled ones failed
+     */
+    private int getPopulationSize(int h) {
+        int n = analyzed.get(h).size();
+        return n == 0 ? 0 : strata.get(h).size() - (taken[h] - n);
+    }
+
+    private static long getNewMethodsCoefficient(ClassMetrics cm) {
+        return (long) cm.getNumOfNewMethods() * cm.getNumOfChildren();
+    }
+
+    /**
+     * @return {@code sum(N_h * mean(y_h))} over the strata with analyzed classes
+     */
+    private double estimateTotal(ToLongFunction<ClassMetrics> value) {
+        double total = 0;
+        for (int h = 0; h < strata.size(); h++) {
+            List<ClassMetrics> sample = analyzed.get(h);
+            if (sample.isEmpty()) {
+                continue;
+            }
+            long sum = 0;
+            for (ClassMetrics cm : sample) {
+                sum += value.applyAsLong(cm);
+            }
+            total += (double) getPopulationSize(h) * sum / sample.size();
+        }
+        return total;
+    }
+
+    private Estimate.Interval estimateInterval(ToLongFunction<ClassMetrics> numerator,
+                                               ToLongFunction<ClassMetrics> denominator, double z) {
+        double totalDenominator = estimateTotal(denominator);
+        double ratio = estimateTotal(numerator) / totalDenominator;
+        if (Double.isNaN(ratio) || Double.isInfinite(ratio)) {
+            return new Estimate.Interval(Double.NaN, Double.NaN);
+        }
+        double variance = 0;
+        for (int h = 0; h < strata.size(); h++) {
+            List<ClassMetrics> sample = analyzed.get(h);
+            int n = sample.size();
+            int size = getPopulationSize(h);
+            if (n < MIN_CLASSES_PER_STRATUM) {
+                continue;
+            }
+            double[] residuals = new double[n];
+            double mean = 0;
+            for (int i = 0; i < n; i++) {
+                ClassMetrics cm = sample.get(i);
+                residuals[i] = numerator.applyAsLong(cm) - ratio * denominator.applyAsLong(cm);
+                mean += residuals[i] / n;
+            }
+            double sumOfSquares = 0;
+            for (double residual : residuals) {
+                sumOfSquares += (residual - mean) * (residual - mean);
+            }
+            variance += (double) size * size * (1 - (double) n / size) * sumOfSquares / (n - 1) / n;
+        }
+        double halfWidth = z * Math.sqrt(variance) / Math.abs(totalDenominator);
+        return new Estimate.Interval(ratio - halfWidth, ratio + halfWidth);
+    }
+
+    /**
+     * Quantile function of the standard normal distribution, by Acklam's rational approximation
+     * (relative error below {@code 1.2e-9}).
+     */
+    static double normalQuantile(double p) {
+        double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        double tail = 0.02425;
+        if (p < tail || p > 1 - tail) {
+            double q = Math.sqrt(-2 * Math.log(Math.min(p, 1 - p)));
+            double x = (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+            return p < tail ? x : -x;
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
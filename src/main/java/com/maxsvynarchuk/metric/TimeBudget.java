@@ -0,0 +1,118 @@
+package com.maxsvynarchuk.metric;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Time limits of one analysis run: a budget for every class and a deadline for the whole run.
+ * <p>
+ * With a limit set, work on a class is handed to a daemon worker thread and abandoned when the limit
+ * passes: the worker is interrupted, but a static initializer that ignores interrupts keeps its thread
+ * busy in the background while the run goes on without it. Without limits the work runs on the calling
+ * thread. Thread-safe.
+ */
+final class TimeBudget implements AutoCloseable {
+    static final String RUN_BUDGET_EXHAUSTED = "Run time budget exhausted";
+
+    private final long classBudgetNanos;
+    private final long deadlineNanos;
+    private final boolean limited;
+    private ExecutorService workers;
+
+    /**
+     * @param classBudget time a class may take, {@code null} for no limit
+     * @param runBudget   time the run may take from now on, {@code null} for no limit
+     */
+    TimeBudget(Duration classBudget, Duration runBudget) {
+        this.classBudgetNanos = Objects.isNull(classBudget) ? Long.MAX_VALUE : classBudget.toNanos();
+        this.deadlineNanos = Objects.isNull(runBudget) ? Long.MAX_VALUE : System.nanoTime() + runBudget.toNanos();
+        this.limited = Objects.nonNull(classBudget) || Objects.nonNull(runBudget);
+    }
+
+    /**
+     * @throws TimeoutException if the run is over its budget
+     */
+    void checkDeadline() throws TimeoutException {
+        if (isRunOver()) {
+            throw new TimeoutException(RUN_BUDGET_EXHAUSTED);
+        }
+    }
+
+    boolean isRunOver() {
+        return getRemainingNanos() <= 0;
+    }
+
+    /**
+     * @return whether {@code cause} is this budget ending the run: a deadline check or the cancellation
+     * of a task, as opposed to a failure of the class itself
+     */
+    static boolean isRunBudgetExhausted(Throwable cause) {
+        return cause instanceof CancellationException
+                || cause instanceof TimeoutException && RUN_BUDGET_EXHAUSTED.equals(cause.getMessage());
+    }
+
+    /**
+     * Runs {@code task} within the budget of one class and the remaining budget of the run.
+     *
+     * @throws TimeoutException if either budget ran out first
+     */
+    <T> T call(Callable<T> task) throws Exception {
+        if (!limited) {
+            return task.call();
+        }
+        checkDeadline();
+        long remainingNanos = getRemainingNanos();
+        long timeoutNanos = Math.min(classBudgetNanos, remainingNanos);
+        Future<T> future = getWorkers().submit(task);
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TimeoutException(timeoutNanos == remainingNanos
+                    ? RUN_BUDGET_EXHAUSTED
+                    : "Class time budget of " + Duration.ofNanos(classBudgetNanos) + " exceeded");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (Objects.nonNull(workers)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private long getRemainingNanos() {
+        return deadlineNanos == Long.MAX_VALUE ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * Threads are not reused while they are stuck, so the pool grows by one for every abandoned class.
+     */
+    private synchronized ExecutorService getWorkers() {
+        if (Objects.isNull(workers)) {
+            workers = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "class-analysis-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return workers;
+    }
+}
@@ -0,0 +1,33 @@
+package com.maxsvynarchuk.metric;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Read-only view of a type graph, independent of how the types were obtained.
+ *
+ * @param <T> type handle, e.g. {@link Class} or a parsed class file
+ */
+public interface TypeHierarchy<T> {
+
+    /**
+     * @return the superclass of {@code type}, or {@code null} for interfaces and {@code java.lang.Object}
+     */
+    T getSuperclass(T type);
+
+    String getName(T type);
+
+    Collection<T> getInterfaces(T type);
+
+    boolean isObject(T type);
+
+    /**
+     * @return signatures of the methods {@code type} itself contributes to its subtypes
+     */
+    Set<MethodSignature> getDeclaredMethodSignatures(T type);
+
+    /**
+     * @return names of the fields {@code type} itself contributes to its subtypes
+     */
+    Set<String> getDeclaredFieldNames(T type);
+}
@@ -0,0 +1,20 @@
+package com.maxsvynarchuk.metric;
+
+import java.util.Set;
+
+/**
+ * Outcome of scanning a set of class files: which types were found and how they extend each other.
+ */
+public interface TypeScan {
+
+    /**
+     * Same contract as {@code Reflections.getAllTypes}: every scanned type reachable from
+     * {@code java.lang.Object} through the subtype edges.
+     */
+    Set<String> getAllTypes();
+
+    /**
+     * @return names of the scanned types that directly extend or implement {@code typeName}
+     */
+    Set<String> getSubTypes(String typeName);
+}
@@ -0,0 +1,105 @@
+package com.maxsvynarchuk.metric.bytecode;
+
+import com.maxsvynarchuk.metric.MethodSignature;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Class-file counterpart of {@link com.maxsvynarchuk.metric.ReflectionHelper}.
+ * Every method yields the same member sets as its reflective twin for the same type.
+ */
+public class BytecodeHelper {
+
+    public static Set<MemberInfo> getAccessibleMethods(ClassInfo classInfo, ClassInfoRepository repository) {
+        Map<MethodSignature, MemberInfo> accessibleMethods = new HashMap<>();
+        for (ClassInfo type : repository.getAllSuperTypes(classInfo)) {
+            getDeclaredMethods(type).forEach(m -> accessibleMethods.putIfAbsent(m.getSignature(), m));
+        }
+        return new HashSet<>(accessibleMethods.values());
+    }
+
+    public static Set<MemberInfo> getDeclaredMethods(ClassInfo classInfo) {
+        return classInfo.getMethods().stream()
+                .filter(getMethodModifiersPredicate())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public static Set<MemberInfo> getInheritedAndOverriddenMethods(ClassInfo classInfo, ClassInfoRepository repository) {
+        if (Objects.isNull(classInfo.getSuperclassName()) && classInfo.getInterfaceNames().isEmpty())
+            return Collections.emptySet();
+
+        Set<MethodSignature> signaturesFromSupertypes = new HashSet<>();
+        ClassInfo superclass = repository.getSuperclass(classInfo);
+        if (Objects.nonNull(superclass)) {
+            getAccessibleMethods(superclass, repository).forEach(m -> signaturesFromSupertypes.add(m.getSignature()));
+        }
+        for (ClassInfo interfaceInfo : repository.getInterfaces(classInfo)) {
+            getAccessibleMethods(interfaceInfo, repository).forEach(m -> signaturesFromSupertypes.add(m.getSignature()));
+        }
+
+        return getDeclaredMethods(classInfo).stream()
+                .filter(m -> signaturesFromSupertypes.contains(m.getSignature()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public static Set<MemberInfo> getAccessibleFields(ClassInfo classInfo, ClassInfoRepository repository) {
+        Map<String, MemberInfo> accessibleFields = new HashMap<>();
+        for (ClassInfo type : repository.getAllSuperTypes(classInfo)) {
+            getDeclaredForInheritanceFields(type).forEach(f -> accessibleFields.putIfAbsent(f.getName(), f));
+        }
+        return new HashSet<>(accessibleFields.values());
+    }
+
+    public static Set<MemberInfo> getDeclaredForInheritanceFields(ClassInfo classInfo) {
+        return classInfo.getFields().stream()
+                .filter(getFieldModifiersPredicate())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public static Set<MemberInfo> getPrivateMethods(ClassInfo classInfo) {
+        return classInfo.getMethods().stream()
+                .filter(m -> Modifier.isPrivate(m.getModifiers()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public static Set<MemberInfo> getOpenMethods(ClassInfo classInfo) {
+        return classInfo.getMethods().stream()
+                .filter(m -> !Modifier.isAbstract(m.getModifiers()) && !Modifier.isPrivate(m.getModifiers()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public static Set<MemberInfo> getPrivateFields(ClassInfo classInfo) {
+        return classInfo.getFields().stream()
+                .filter(f -> Modifier.isPrivate(f.getModifiers()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public static Set<MemberInfo> getAllDeclaredFields(ClassInfo classInfo) {
+        return classInfo.isInterface()
+                ? Collections.emptySet()
+                : Set.copyOf(classInfo.getFields());
+    }
+
+    public static Predicate<MemberInfo> getMethodModifiersPredicate() {
+        return method -> {
+            int mod = method.getModifiers();
+            return !Modifier.isAbstract(mod) && !Modifier.isPrivate(mod) && !Modifier.isStatic(mod);
+        };
+    }
+
+    public static Predicate<MemberInfo> getFieldModifiersPredicate() {
+        return field -> {
+            int mod = field.getModifiers();
+            return !Modifier.isPrivate(mod) && !Modifier.isStatic(mod);
+        };
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.maxsvynarchuk.metric.bytecode;
+
+import com.maxsvynarchuk.metric.MethodSignature;
+import com.maxsvynarchuk.metric.TypeHierarchy;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class BytecodeTypeHierarchy implements TypeHierarchy<ClassInfo> {
+    private final ClassInfoRepository repository;
+
+    public BytecodeTypeHierarchy(ClassInfoRepository repository) {
+        this.repository = Objects.requireNonNull(repository);
+    }
+
+    @Override
+    public ClassInfo getSuperclass(ClassInfo type) {
+        return repository.getSuperclass(type);
+    }
+
+    @Override
+    public String getName(ClassInfo type) {
+        return type.getName();
+    }
+
+    @Override
+    public Collection<ClassInfo> getInterfaces(ClassInfo type) {
+        return repository.getInterfaces(type);
+    }
+
+    @Override
+    public boolean isObject(ClassInfo type) {
+        return type.isObject();
+    }
+
+    @Override
+    public Set<MethodSignature> getDeclaredMethodSignatures(ClassInfo type) {
+        return BytecodeHelper.getDeclaredMethods(type).stream()
+                .map(MemberInfo::getSignature)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<String> getDeclaredFieldNames(ClassInfo type) {
+        return BytecodeHelper.getDeclaredForInheritanceFields(type).stream()
+                .map(MemberInfo::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,21 @@
+package com.maxsvynarchuk.metric.bytecode;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Where {@link ClassInfoRepository} reads class files from.
+ */
+@FunctionalInterface
+public interface ClassFileSource {
+
+    /**
+     * @param resourceName class file path such as {@code "java/lang/Object.class"}
+     * @return the class file contents, or {@code null} if this source has no such class
+     */
+    InputStream open(String resourceName) throws IOException;
+
+    static ClassFileSource of(ClassLoader classLoader) {
+        return classLoader::getResourceAsStream;
+    }
+}
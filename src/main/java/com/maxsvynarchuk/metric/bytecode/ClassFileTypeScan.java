@@ -0,0 +1,162 @@
+package com.maxsvynarchuk.metric.bytecode;
+
+import com.google.common.base.Throwables;
+import com.maxsvynarchuk.metric.ConcurrentLoader;
+import com.maxsvynarchuk.metric.TypeScan;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scans the class files below a root path (a directory or the root of a zip file system) into
+ * the same subtype edges the Reflections {@code SubTypesScanner} records, without loading any class.
+ */
+public class ClassFileTypeScan implements TypeScan {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final Map<String, Set<String>> subTypes = new HashMap<>();
+    private final Map<String, List<String>> supertypeNames = new HashMap<>();
+
+    private ClassFileTypeScan() {
+    }
+
+    /**
+     * @param packagePrefix only classes whose name starts with it are scanned, empty for all
+     * @param loader        reads the class files concurrently; edges are still recorded in name order
+     */
+    public static ClassFileTypeScan scan(Path root, String packagePrefix, ClassInfoRepository repository,
+                                         ConcurrentLoader loader) throws IOException {
+        return scan(listClassNames(root, packagePrefix), repository, loader);
+    }
+
+    /**
+     * Takes the edges from up-to-date indexes of the class files instead; no member is decoded.
+     */
+    public static ClassFileTypeScan scan(List<ScanIndex> indexes, String packagePrefix) {
+        ClassFileTypeScan scan = new ClassFileTypeScan();
+        for (ScanIndex index : indexes) {
+            for (String className : index.getClassNames(packagePrefix)) {
+                scan.addType(className, index.getSuperclassName(className), index.getInterfaceNames(className));
+            }
+        }
+        return scan;
+    }
+
+    private static ClassFileTypeScan scan(List<String> classNames, ClassInfoRepository repository,
+                                          ConcurrentLoader loader) {
+        ConcurrentLoader.Outcome<String, ClassInfo> outcome = loader.load(classNames, repository::get);
+        if (outcome.getFailure().isPresent()) {
+            Throwables.throwIfUnchecked(outcome.getFailure().get());
+            throw new IllegalStateException(outcome.getFailure().get());
+        }
+        ClassFileTypeScan scan = new ClassFileTypeScan();
+        outcome.getValues().forEach(scan::addType);
+        return scan;
+    }
+
+    /**
+     * @return names of the classes compiled below {@code root} that start with {@code packagePrefix}, sorted
+     */
+    static List<String> listClassNames(Path root, String packagePrefix) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths
+                    .filter(Files::isRegularFile)
+                    .map(path -> toClassName(root.relativize(path)))
+                    .filter(name -> Objects.nonNull(name) && name.startsWith(packagePrefix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @param path file path relative to the root
+     * @return name of the class compiled to {@code path}, {@code null} for other files
+     */
+    static String toClassName(Path path) {
+        String name = path.toString().replace(path.getFileSystem().getSeparator(), ".");
+        if (!name.endsWith(CLASS_SUFFIX) || name.startsWith("META-INF.")) {
+            return null;
+        }
+        name = name.substring(0, name.length() - CLASS_SUFFIX.length());
+        return name.endsWith("module-info") ? null : name;
+    }
+
+    /**
+     * Records the edges from the direct supertypes of {@code classInfo}, e.g. of a class compiled after the scan.
+     */
+    public void addType(ClassInfo classInfo) {
+        addType(classInfo.getName(), classInfo.getSuperclassName(), classInfo.getInterfaceNames());
+    }
+
+    private void addType(String className, String superclassName, List<String> interfaceNames) {
+        removeType(className);
+        List<String> names = collectSupertypeNames(className, superclassName, interfaceNames);
+        for (String supertypeName : names) {
+            subTypes.computeIfAbsent(supertypeName, k -> new LinkedHashSet<>()).add(className);
+        }
+        supertypeNames.put(className, names);
+    }
+
+    /**
+     * Drops the edges recorded by {@link #addType}; edges to the subtypes of {@code className} are kept.
+     *
+     * @return names of its direct supertypes, empty if the type was not scanned
+     */
+    public List<String> removeType(String className) {
+        List<String> names = supertypeNames.remove(className);
+        if (Objects.isNull(names)) {
+            return List.of();
+        }
+        for (String supertypeName : names) {
+            subTypes.get(supertypeName).remove(className);
+        }
+        return names;
+    }
+
+    /**
+     * @return names of the direct supertypes of a scanned type, empty if it was not scanned
+     */
+    public List<String> getSupertypeNames(String className) {
+        return supertypeNames.getOrDefault(className, List.of());
+    }
+
+    private static List<String> collectSupertypeNames(String className, String superclassName,
+                                                      List<String> interfaceNames) {
+        List<String> names = new ArrayList<>();
+        if (!Object.class.getName().equals(className)) {
+            // the class file of an interface names java.lang.Object as its superclass
+            names.add(Objects.nonNull(superclassName) ? superclassName : Object.class.getName());
+        }
+        names.addAll(interfaceNames);
+        return names;
+    }
+
+    @Override
+    public Set<String> getAllTypes() {
+        Set<String> allTypes = new HashSet<>();
+        List<String> work = new ArrayList<>(getSubTypes(Object.class.getName()));
+        for (int i = 0; i < work.size(); i++) {
+            if (allTypes.add(work.get(i))) {
+                work.addAll(getSubTypes(work.get(i)));
+            }
+        }
+        return allTypes;
+    }
+
+    @Override
+    public Set<String> getSubTypes(String typeName) {
+        return Collections.unmodifiableSet(subTypes.getOrDefault(typeName, Collections.emptySet()));
+    }
+}
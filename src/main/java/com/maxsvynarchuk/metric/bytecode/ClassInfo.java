@@ -0,0 +1,75 @@
+package com.maxsvynarchuk.metric.bytecode;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.ClassFile;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Getter
+@ToString
+public class ClassInfo {
+    private final String name;
+    private final String superclassName;
+    private final List<String> interfaceNames;
+    private final int modifiers;
+    private final List<MemberInfo> methods;
+    private final List<MemberInfo> fields;
+    /**
+     * Hash of the raw class file bytes.
+     */
+    private final HashCode contentHash;
+
+    private ClassInfo(ClassFile classFile, HashCode contentHash) {
+        this.contentHash = contentHash;
+        this.name = classFile.getName();
+        this.modifiers = AccessFlag.toModifier(classFile.getAccessFlags());
+        // class files of interfaces name java.lang.Object as their superclass, reflection reports none
+        this.superclassName = classFile.isInterface() ? null : classFile.getSuperclass();
+        this.interfaceNames = List.of(classFile.getInterfaces());
+        this.methods = classFile.getMethods().stream()
+                .filter(m -> !m.isConstructor() && !m.isStaticInitializer())
+                .map(m -> new MemberInfo(name, m.getName(), m.getDescriptor(), AccessFlag.toModifier(m.getAccessFlags())))
+                .collect(Collectors.toUnmodifiableList());
+        this.fields = classFile.getFields().stream()
+                .map(f -> new MemberInfo(name, f.getName(), f.getDescriptor(), AccessFlag.toModifier(f.getAccessFlags())))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Restores a class file read before, e.g. from a {@link ScanIndex}.
+     */
+    ClassInfo(String name, String superclassName, List<String> interfaceNames, int modifiers,
+              List<MemberInfo> methods, List<MemberInfo> fields, HashCode contentHash) {
+        this.name = name;
+        this.superclassName = superclassName;
+        this.interfaceNames = interfaceNames;
+        this.modifiers = modifiers;
+        this.methods = methods;
+        this.fields = fields;
+        this.contentHash = contentHash;
+    }
+
+    public static ClassInfo read(InputStream classFileStream) throws IOException {
+        byte[] bytes = classFileStream.readAllBytes();
+        return new ClassInfo(new ClassFile(new DataInputStream(new ByteArrayInputStream(bytes))),
+                Hashing.murmur3_128().hashBytes(bytes));
+    }
+
+    public boolean isInterface() {
+        return Modifier.isInterface(modifiers);
+    }
+
+    public boolean isObject() {
+        return Object.class.getName().equals(name);
+    }
+}
@@ -0,0 +1,142 @@
+package com.maxsvynarchuk.metric.bytecode;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Resolves {@link ClassInfo} by class name from the class files of a {@link ClassFileSource}.
+ * Class files are only read, so no type is ever defined or initialized.
+ */
+public class ClassInfoRepository {
+    private final ClassFileSource classFileSource;
+    private final List<ScanIndex> indexes = new CopyOnWriteArrayList<>();
+    private final Map<String, ClassInfo> classInfos = new ConcurrentHashMap<>();
+    private final Map<String, HashCode> hierarchyHashes = new ConcurrentHashMap<>();
+
+    public ClassInfoRepository(ClassLoader classLoader) {
+        this(ClassFileSource.of(classLoader));
+    }
+
+    public ClassInfoRepository(ClassFileSource classFileSource) {
+        this(classFileSource, List.of());
+    }
+
+    /**
+     * @param indexes consulted before {@code classFileSource}, so indexed classes are not read and parsed
+     */
+    public ClassInfoRepository(ClassFileSource classFileSource, List<ScanIndex> indexes) {
+        this.classFileSource = Objects.requireNonNull(classFileSource);
+        this.indexes.addAll(indexes);
+    }
+
+    /**
+     * Consults {@code index} too for classes that were not resolved yet.
+     */
+    public void addIndex(ScanIndex index) {
+        indexes.add(Objects.requireNonNull(index));
+    }
+
+    public ClassInfo get(String className) {
+        return classInfos.computeIfAbsent(className, this::read);
+    }
+
+    public ClassInfo getSuperclass(ClassInfo classInfo) {
+        return Objects.isNull(classInfo.getSuperclassName())
+                ? null
+                : get(classInfo.getSuperclassName());
+    }
+
+    public List<ClassInfo> getInterfaces(ClassInfo classInfo) {
+        List<ClassInfo> interfaces = new ArrayList<>();
+        for (String interfaceName : classInfo.getInterfaceNames()) {
+            interfaces.add(get(interfaceName));
+        }
+        return interfaces;
+    }
+
+    /**
+     * Same traversal as {@code ReflectionUtils.getAllSuperTypes}: the type itself, its superclasses
+     * and all of their interfaces, excluding {@code java.lang.Object}.
+     */
+    public Set<ClassInfo> getAllSuperTypes(ClassInfo classInfo) {
+        Set<ClassInfo> result = new LinkedHashSet<>();
+        if (!classInfo.isObject()) {
+            result.add(classInfo);
+            ClassInfo superclass = getSuperclass(classInfo);
+            if (Objects.nonNull(superclass)) {
+                result.addAll(getAllSuperTypes(superclass));
+            }
+            for (ClassInfo interfaceInfo : getInterfaces(classInfo)) {
+                result.addAll(getAllSuperTypes(interfaceInfo));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hash of the class file combined with the hierarchy hashes of its direct supertypes,
+     * so it changes whenever the type or any of its ancestors changes.
+     */
+    public HashCode getHierarchyHash(ClassInfo classInfo) {
+        HashCode hash = hierarchyHashes.get(classInfo.getName());
+        if (Objects.nonNull(hash)) {
+            return hash;
+        }
+        Hasher hasher = Hashing.murmur3_128().newHasher()
+                .putBytes(classInfo.getContentHash().asBytes());
+        ClassInfo superclass = getSuperclass(classInfo);
+        if (Objects.nonNull(superclass)) {
+            hasher.putBytes(getHierarchyHash(superclass).asBytes());
+        }
+        for (ClassInfo interfaceInfo : getInterfaces(classInfo)) {
+            hasher.putBytes(getHierarchyHash(interfaceInfo).asBytes());
+        }
+        hash = hasher.hash();
+        hierarchyHashes.put(classInfo.getName(), hash);
+        return hash;
+    }
+
+    /**
+     * Forgets {@code classNames} so that their class files are read again on next use.
+     * Hierarchy hashes depend on the ancestors, so subtypes of a changed class must be invalidated too.
+     */
+    public void invalidate(Collection<String> classNames) {
+        for (String className : classNames) {
+            classInfos.remove(className);
+            hierarchyHashes.remove(className);
+        }
+    }
+
+    private ClassInfo read(String className) {
+        for (ScanIndex index : indexes) {
+            ClassInfo classInfo = index.getClassInfo(className);
+            if (Objects.nonNull(classInfo)) {
+                return classInfo;
+            }
+        }
+        String resourceName = className.replace('.', '/') + ".class";
+        try (InputStream in = classFileSource.open(resourceName)) {
+            if (Objects.isNull(in)) {
+                throw new IllegalArgumentException("Cannot find class file: " + resourceName);
+            }
+            return ClassInfo.read(new BufferedInputStream(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read class file: " + resourceName, e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.maxsvynarchuk.metric.bytecode;
+
+import com.maxsvynarchuk.metric.MethodSignature;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Objects;
+
+@Getter
+@ToString
+public class MemberInfo {
+    private final String declaringClassName;
+    private final String name;
+    private final String descriptor;
+    private final int modifiers;
+    /**
+     * Name plus parameter descriptor for methods, {@code null} for fields.
+     */
+    private final MethodSignature signature;
+
+    public MemberInfo(String declaringClassName, String name, String descriptor, int modifiers) {
+        this.declaringClassName = Objects.requireNonNull(declaringClassName);
+        this.name = Objects.requireNonNull(name);
+        this.descriptor = Objects.requireNonNull(descriptor);
+        this.modifiers = modifiers;
+        this.signature = descriptor.startsWith("(") ? MethodSignature.of(name, descriptor) : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.maxsvynarchuk.metric.bytecode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Reads class files below a root path, e.g. a classes directory or the root of a zip file system,
+ * and asks {@code fallback} for anything the root does not contain, such as JDK types.
+ */
+public class PathClassFileSource implements ClassFileSource {
+    private final Path root;
+    private final ClassFileSource fallback;
+
+    public PathClassFileSource(Path root, ClassFileSource fallback) {
+        this.root = Objects.requireNonNull(root);
+        this.fallback = Objects.requireNonNull(fallback);
+    }
+
+    @Override
+    public InputStream open(String resourceName) throws IOException {
+        Path classFile = root.resolve(resourceName);
+        return Files.isRegularFile(classFile)
+                ? Files.newInputStream(classFile)
+                : fallback.open(resourceName);
+    }
+}
@@ -0,0 +1,323 @@
+package com.maxsvynarchuk.metric.bytecode;
+
+import com.google.common.hash.HashCode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Everything a {@link ClassFileTypeScan} and the bytecode engine read from the class files below a root,
+ * written once at build time so that later analyses neither walk nor parse the class files.
+ * <p>
+ * The index lives in the root itself, at {@link #LOCATION}, so it is packaged into the JAR with the classes.
+ * It holds a string table, then the name, size, modification time and CRC-32 of every class file, then one
+ * record per class with its supertypes, modifiers, content hash and declared members. An index file on the
+ * default file system is memory-mapped; records are decoded only when their class is asked for.
+ * <p>
+ * An index is stale once a class file was added, removed or changed since it was written: inside a JAR the
+ * sizes and CRCs of the entries are compared, which the zip directory stores, in a directory the sizes and
+ * modification times. A stale index is ignored.
+ */
+public final class ScanIndex {
+    public static final String LOCATION = "META-INF/mood-scan.idx";
+    private static final int MAGIC = 0x4D534349;
+    private static final int FORMAT_VERSION = 1;
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final List<String> classNames;
+    private final long[] sizes;
+    private final long[] lastModifiedTimes;
+    private final int[] crcs;
+    private final Map<String, Integer> recordOffsets;
+
+    private ScanIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported scan index format");
+        }
+        strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int size = buffer.getInt();
+        String[] names = new String[size];
+        sizes = new long[size];
+        lastModifiedTimes = new long[size];
+        crcs = new int[size];
+        int[] offsets = new int[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = strings[buffer.getInt()];
+            sizes[i] = buffer.getLong();
+            lastModifiedTimes[i] = buffer.getLong();
+            crcs[i] = buffer.getInt();
+            offsets[i] = buffer.getInt();
+        }
+        int recordsStart = buffer.position();
+        classNames = List.of(names);
+        recordOffsets = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            recordOffsets.put(names[i], recordsStart + offsets[i]);
+        }
+    }
+
+    /**
+     * Indexes every class file below {@code root}, a class directory, into {@code root/}{@link #LOCATION}.
+     *
+     * @return number of indexed classes
+     */
+    public static int write(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Invalid class directory: " + root);
+        }
+        List<String> classNames = ClassFileTypeScan.listClassNames(root, "");
+        Map<String, Integer> stringIndexes = new LinkedHashMap<>();
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream recordsOut = new DataOutputStream(records);
+        ByteArrayOutputStream classTable = new ByteArrayOutputStream();
+        DataOutputStream classTableOut = new DataOutputStream(classTable);
+        for (String className : classNames) {
+            Path classFile = toPath(root, className);
+            byte[] bytes = Files.readAllBytes(classFile);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            classTableOut.writeInt(intern(className, stringIndexes));
+            classTableOut.writeLong(bytes.length);
+            classTableOut.writeLong(Files.getLastModifiedTime(classFile).toMillis());
+            classTableOut.writeInt((int) crc.getValue());
+            classTableOut.writeInt(recordsOut.size());
+            writeRecord(ClassInfo.read(new ByteArrayInputStream(bytes)), recordsOut, stringIndexes);
+        }
+
+        Path file = root.resolve(LOCATION);
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(os)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(stringIndexes.size());
+            for (String string : stringIndexes.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(classNames.size());
+            classTable.writeTo(out);
+            records.writeTo(out);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return classNames.size();
+    }
+
+    /**
+     * @return the index of the class files below {@code root}, empty if there is none or it is stale
+     */
+    public static Optional<ScanIndex> open(Path root) {
+        Path file = root.resolve(LOCATION);
+        try {
+            ScanIndex index = new ScanIndex(map(file));
+            String staleReason = index.findStaleReason(root);
+            if (Objects.nonNull(staleReason)) {
+                System.err.println("Ignoring stale scan index " + file.toUri() + ": " + staleReason);
+                return Optional.empty();
+            }
+            return Optional.of(index);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable scan index " + file.toUri() + ": " + e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return names of the indexed classes that start with {@code packagePrefix}, sorted
+     */
+    public List<String> getClassNames(String packagePrefix) {
+        return classNames.stream()
+                .filter(name -> name.startsWith(packagePrefix))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the indexed class, {@code null} if the index does not contain it
+     */
+    public ClassInfo getClassInfo(String className) {
+        Integer offset = recordOffsets.get(className);
+        if (Objects.isNull(offset)) {
+            return null;
+        }
+        ByteBuffer record = getRecord(offset);
+        int superclassIndex = record.getInt();
+        int modifiers = record.getInt();
+        byte[] contentHash = new byte[record.getInt()];
+        record.get(contentHash);
+        String[] interfaceNames = new String[record.getInt()];
+        for (int i = 0; i < interfaceNames.length; i++) {
+            interfaceNames[i] = strings[record.getInt()];
+        }
+        List<MemberInfo> methods = readMembers(className, record);
+        List<MemberInfo> fields = readMembers(className, record);
+        return new ClassInfo(className, superclassIndex < 0 ? null : strings[superclassIndex],
+                List.of(interfaceNames), modifiers, methods, fields, HashCode.fromBytes(contentHash));
+    }
+
+    /**
+     * @return superclass as in {@link ClassInfo#getSuperclassName()} of an indexed class
+     */
+    public String getSuperclassName(String className) {
+        int superclassIndex = getRecord(recordOffsets.get(className)).getInt();
+        return superclassIndex < 0 ? null : strings[superclassIndex];
+    }
+
+    /**
+     * @return direct interfaces of an indexed class
+     */
+    public List<String> getInterfaceNames(String className) {
+        ByteBuffer record = getRecord(recordOffsets.get(className));
+        // skip the superclass, the modifiers and the content hash
+        record.position(record.position() + 2 * Integer.BYTES);
+        int contentHashLength = record.getInt();
+        record.position(record.position() + contentHashLength);
+        String[] interfaceNames = new String[record.getInt()];
+        for (int i = 0; i < interfaceNames.length; i++) {
+            interfaceNames[i] = strings[record.getInt()];
+        }
+        return List.of(interfaceNames);
+    }
+
+    public int size() {
+        return classNames.size();
+    }
+
+    /**
+     * A duplicate per read keeps concurrent readers from moving each other's position.
+     */
+    private ByteBuffer getRecord(int offset) {
+        return buffer.duplicate().position(offset);
+    }
+
+    private static void writeRecord(ClassInfo classInfo, DataOutputStream out,
+                                    Map<String, Integer> stringIndexes) throws IOException {
+        out.writeInt(Objects.isNull(classInfo.getSuperclassName())
+                ? -1
+                : intern(classInfo.getSuperclassName(), stringIndexes));
+        out.writeInt(classInfo.getModifiers());
+        byte[] contentHash = classInfo.getContentHash().asBytes();
+        out.writeInt(contentHash.length);
+        out.write(contentHash);
+        out.writeInt(classInfo.getInterfaceNames().size());
+        for (String interfaceName : classInfo.getInterfaceNames()) {
+            out.writeInt(intern(interfaceName, stringIndexes));
+        }
+        writeMembers(classInfo.getMethods(), out, stringIndexes);
+        writeMembers(classInfo.getFields(), out, stringIndexes);
+    }
+
+    private static void writeMembers(List<MemberInfo> members, DataOutputStream out,
+                                     Map<String, Integer> stringIndexes) throws IOException {
+        out.writeInt(members.size());
+        for (MemberInfo member : members) {
+            out.writeInt(intern(member.getName(), stringIndexes));
+            out.writeInt(intern(member.getDescriptor(), stringIndexes));
+            out.writeInt(member.getModifiers());
+        }
+    }
+
+    private List<MemberInfo> readMembers(String className, ByteBuffer record) {
+        MemberInfo[] members = new MemberInfo[record.getInt()];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = new MemberInfo(className, strings[record.getInt()], strings[record.getInt()], record.getInt());
+        }
+        return Collections.unmodifiableList(Arrays.asList(members));
+    }
+
+    private static int intern(String string, Map<String, Integer> stringIndexes) {
+        return stringIndexes.computeIfAbsent(string, k -> stringIndexes.size());
+    }
+
+    /**
+     * Zip entries cannot be mapped, so an index inside a JAR is read onto the heap.
+     */
+    private static ByteBuffer map(Path file) throws IOException {
+        if (file.getFileSystem() != FileSystems.getDefault()) {
+            return ByteBuffer.wrap(Files.readAllBytes(file));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Walks {@code root} once, taking sizes and times from the directory listing; only CRCs of zip entries
+     * are read separately, from the zip directory.
+     *
+     * @return why the class files below {@code root} no longer match the index, {@code null} if they do
+     */
+    private String findStaleReason(Path root) throws IOException {
+        Map<String, BasicFileAttributes> classFiles = new HashMap<>(classNames.size() * 2);
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                String className = ClassFileTypeScan.toClassName(root.relativize(file));
+                if (Objects.nonNull(className) && attributes.isRegularFile()) {
+                    classFiles.put(className, attributes);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (classFiles.size() != classNames.size() || !classFiles.keySet().containsAll(classNames)) {
+            return "class files were added or removed";
+        }
+        boolean zip = root.getFileSystem() != FileSystems.getDefault();
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < classNames.size(); i++) {
+            BasicFileAttributes attributes = classFiles.get(classNames.get(i));
+            boolean unchanged = attributes.size() == sizes[i] && (zip
+                    ? getCrc(toPath(root, classNames.get(i))) == crcs[i]
+                    : attributes.lastModifiedTime().toMillis() == lastModifiedTimes[i]);
+            if (!unchanged) {
+                changed.add(classNames.get(i));
+            }
+        }
+        return changed.isEmpty() ? null : changed.size() + " class files changed, e.g. " + changed.get(0);
+    }
+
+    private static int getCrc(Path zipEntry) throws IOException {
+        return ((Number) Files.getAttribute(zipEntry, "zip:crc")).intValue();
+    }
+
+    private static Path toPath(Path root, String className) {
+        return root.resolve(className.replace('.', '/') + CLASS_SUFFIX);
+    }
+}
@@ -0,0 +1,104 @@
+package com.maxsvynarchuk.metric.plugin;
+
+import com.maxsvynarchuk.metric.ClassMetrics;
+import com.maxsvynarchuk.metric.MethodSignature;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The metrics of the MOOD suite plus depth of inheritance tree and number of children.
+ */
+public enum BuiltInMetric implements MetricPlugin {
+    DIT(MetricInput.HIERARCHY) {
+        @Override
+        public void calculate(MetricContext context, ClassMetrics classMetrics) {
+            classMetrics.setDepthOfInheritanceTree(context.getDepthOfInheritanceTree());
+        }
+    },
+    NOC(MetricInput.HIERARCHY) {
+        @Override
+        public void calculate(MetricContext context, ClassMetrics classMetrics) {
+            classMetrics.setNumOfChildren(context.getNumOfChildren());
+        }
+    },
+    MIF(MetricInput.DECLARED_MEMBERS, MetricInput.INHERITED_MEMBERS) {
+        @Override
+        public void calculate(MetricContext context, ClassMetrics classMetrics) {
+            Set<MethodSignature> accessibleMethods = context.getInheritedMembers().getAccessibleMethodSignatures();
+            Set<MethodSignature> declaredSignatures = new HashSet<>(context.getDeclaredMethodSignatures());
+            long numOfInheritedAndNonOverrideMethods = accessibleMethods.stream()
+                    .filter(accessibleMethod -> !declaredSignatures.contains(accessibleMethod))
+                    .count();
+
+            classMetrics.setNumOfAccessibleMethods(accessibleMethods.size());
+            classMetrics.setNumOfInheritedAndNonOverrideMethods((int) numOfInheritedAndNonOverrideMethods);
+        }
+    },
+    MHF(MetricInput.DECLARED_MEMBERS) {
+        @Override
+        public void calculate(MetricContext context, ClassMetrics classMetrics) {
+            classMetrics.setNumOfPrivateMethods(context.getNumOfPrivateMethods());
+            classMetrics.setNumOfOpenMethods(context.getNumOfOpenMethods());
+        }
+    },
+    AIF(MetricInput.DECLARED_MEMBERS, MetricInput.INHERITED_MEMBERS) {
+        @Override
+        public void calculate(MetricContext context, ClassMetrics classMetrics) {
+            Set<String> accessibleFields = context.getInheritedMembers().getAccessibleFieldNames();
+            Set<String> declaredNames = context.getDeclaredForInheritanceFieldNames();
+            long numOfInheritedAndNonOverrideFields = accessibleFields.stream()
+                    .filter(accessibleField -> !declaredNames.contains(accessibleField))
+                    .count();
+
+            classMetrics.setNumOfAccessibleFields(accessibleFields.size());
+            classMetrics.setNumOfInheritedAndNonOverrideFields((int) numOfInheritedAndNonOverrideFields);
+        }
+    },
+    AHF(MetricInput.DECLARED_MEMBERS) {
+        @Override
+        public void calculate(MetricContext context, ClassMetrics classMetrics) {
+            classMetrics.setNumOfPrivateFields(context.getNumOfPrivateFields());
+            classMetrics.setNumOfFields(context.getNumOfFields());
+        }
+    },
+    /**
+     * Also needs the hierarchy: the factor weighs new methods by the number of children.
+     */
+    POF(MetricInput.DECLARED_MEMBERS, MetricInput.INHERITED_MEMBERS, MetricInput.HIERARCHY) {
+        @Override
+        public void calculate(MetricContext context, ClassMetrics classMetrics) {
+            Set<MethodSignature> inheritedSignatures = context.getInheritedMembers().getInheritedMethodSignatures();
+            int numOfInheritedAndOverrideMethods = 0;
+            int numOfNewMethods = 0;
+            for (MethodSignature signature : context.getDeclaredMethodSignatures()) {
+                if (inheritedSignatures.contains(signature)) {
+                    numOfInheritedAndOverrideMethods++;
+                } else {
+                    numOfNewMethods++;
+                }
+            }
+
+            classMetrics.setNumOfInheritedAndOverrideMethods(numOfInheritedAndOverrideMethods);
+            classMetrics.setNumOfNewMethods(numOfNewMethods);
+            classMetrics.setNumOfChildren(context.getNumOfChildren());
+        }
+    };
+
+    private final Set<MetricInput> inputs;
+
+    BuiltInMetric(MetricInput first, MetricInput... rest) {
+        this.inputs = Set.copyOf(EnumSet.of(first, rest));
+    }
+
+    @Override
+    public String getName() {
+        return name();
+    }
+
+    @Override
+    public Set<MetricInput> getInputs() {
+        return inputs;
+    }
+}
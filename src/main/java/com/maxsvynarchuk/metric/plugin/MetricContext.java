@@ -0,0 +1,62 @@
+package com.maxsvynarchuk.metric.plugin;
+
+import com.maxsvynarchuk.metric.InheritedMembers;
+import com.maxsvynarchuk.metric.MethodSignature;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Engine independent view of the class being measured. Every accessor belongs to one {@link MetricInput}
+ * and throws {@link IllegalStateException} if none of the selected plugins declared that input.
+ */
+public interface MetricContext {
+
+    String getClassName();
+
+    /**
+     * {@link MetricInput#HIERARCHY}: depth of inheritance tree, {@code -1} for interfaces
+     */
+    int getDepthOfInheritanceTree();
+
+    /**
+     * {@link MetricInput#HIERARCHY}
+     */
+    int getNumOfChildren();
+
+    /**
+     * {@link MetricInput#DECLARED_MEMBERS}: one signature per declared method counted by the metrics,
+     * so methods that only differ in return type appear more than once
+     */
+    List<MethodSignature> getDeclaredMethodSignatures();
+
+    /**
+     * {@link MetricInput#DECLARED_MEMBERS}
+     */
+    int getNumOfPrivateMethods();
+
+    /**
+     * {@link MetricInput#DECLARED_MEMBERS}
+     */
+    int getNumOfOpenMethods();
+
+    /**
+     * {@link MetricInput#DECLARED_MEMBERS}: names of the declared fields subtypes may inherit
+     */
+    Set<String> getDeclaredForInheritanceFieldNames();
+
+    /**
+     * {@link MetricInput#DECLARED_MEMBERS}
+     */
+    int getNumOfPrivateFields();
+
+    /**
+     * {@link MetricInput#DECLARED_MEMBERS}
+     */
+    int getNumOfFields();
+
+    /**
+     * {@link MetricInput#INHERITED_MEMBERS}
+     */
+    InheritedMembers getInheritedMembers();
+}
@@ -0,0 +1,20 @@
+package com.maxsvynarchuk.metric.plugin;
+
+/**
+ * Data about a class a {@link MetricPlugin} may read from its {@link MetricContext}.
+ * Only the inputs declared by the selected plugins are gathered.
+ */
+public enum MetricInput {
+    /**
+     * Members the class declares itself; needs nothing but the class.
+     */
+    DECLARED_MEMBERS,
+    /**
+     * Methods and fields reachable through the supertypes; requires walking the whole ancestry.
+     */
+    INHERITED_MEMBERS,
+    /**
+     * Position of the class in the scanned hierarchy: depth of inheritance and number of children.
+     */
+    HIERARCHY
+}
@@ -0,0 +1,23 @@
+package com.maxsvynarchuk.metric.plugin;
+
+import com.maxsvynarchuk.metric.ClassMetrics;
+
+import java.util.Set;
+
+/**
+ * A per-class metric. Implementations are stateless and may be called from several threads at once.
+ * <p>
+ * Third-party metrics are registered in {@code META-INF/services/com.maxsvynarchuk.metric.plugin.MetricPlugin}
+ * and store their values with {@link ClassMetrics#setAdditionalMetric}.
+ */
+public interface MetricPlugin {
+
+    /**
+     * @return unique short name the metric is selected by, e.g. {@code "MIF"}
+     */
+    String getName();
+
+    Set<MetricInput> getInputs();
+
+    void calculate(MetricContext context, ClassMetrics classMetrics);
+}
@@ -0,0 +1,55 @@
+package com.maxsvynarchuk.metric.plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+public final class MetricPlugins {
+
+    private MetricPlugins() {
+    }
+
+    public static List<MetricPlugin> builtIn() {
+        return List.of(BuiltInMetric.values());
+    }
+
+    /**
+     * @return the built-in metrics among {@code metrics}
+     */
+    public static Set<BuiltInMetric> builtInAmong(List<MetricPlugin> metrics) {
+        Set<BuiltInMetric> builtIn = EnumSet.noneOf(BuiltInMetric.class);
+        for (MetricPlugin metric : metrics) {
+            if (metric instanceof BuiltInMetric) {
+                builtIn.add((BuiltInMetric) metric);
+            }
+        }
+        return Collections.unmodifiableSet(builtIn);
+    }
+
+    /**
+     * @return built-in metrics followed by the ones registered as services on the class path
+     */
+    public static List<MetricPlugin> available() {
+        List<MetricPlugin> plugins = new ArrayList<>(builtIn());
+        ServiceLoader.load(MetricPlugin.class).forEach(plugins::add);
+        return List.copyOf(plugins);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a name matches none of the {@link #available()} metrics
+     */
+    public static List<MetricPlugin> byNames(List<String> names) {
+        List<MetricPlugin> available = available();
+        List<MetricPlugin> selected = new ArrayList<>();
+        for (String name : names) {
+            selected.add(available.stream()
+                    .filter(plugin -> plugin.getName().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown metric: " + name)));
+        }
+        return List.copyOf(selected);
+    }
+}
@@ -0,0 +1,155 @@
+package com.maxsvynarchuk.metric.report;
+
+import com.maxsvynarchuk.metric.ClassMetrics;
+import com.maxsvynarchuk.metric.Estimate;
+import com.maxsvynarchuk.metric.PackageMetrics;
+import com.maxsvynarchuk.metric.Result;
+import com.maxsvynarchuk.metric.SkippedClass;
+import com.maxsvynarchuk.metric.plugin.BuiltInMetric;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A single RFC 4180 table. Class rows fill the per-class columns, factor rows fill
+ * {@code value}, {@code numerator} and {@code denominator}; the {@code record} column tells them apart.
+ * Per-package factor rows follow the global ones and name their package in the last column,
+ * which is empty in all other rows. Classes a resilient run left out get a {@code skipped} row with
+ * just their name. Built-in metrics that were not selected leave their class cells empty and get no factor rows.
+ * Undefined factors leave {@code value} empty. Factors estimated from a sample fill
+ * {@code lower} and {@code upper} with their confidence interval.
+ * <p>
+ * Plugin metrics follow as one column each, named after the metric and in name order. The columns are those
+ * of the first class written, as the header precedes it; a class without a value leaves its cell empty.
+ */
+public class CsvReportWriter implements ReportWriter {
+    private static final String HEADER = "record,name,depthOfInheritanceTree,numOfChildren,"
+            + "numOfInheritedAndNonOverrideMethods,numOfAccessibleMethods,numOfPrivateMethods,numOfOpenMethods,"
+            + "numOfInheritedAndNonOverrideFields,numOfAccessibleFields,numOfPrivateFields,numOfFields,"
+            + "numOfInheritedAndOverrideMethods,numOfNewMethods,value,numerator,denominator,package,lower,upper";
+
+    private final Writer writer;
+    private Set<BuiltInMetric> builtInMetrics = Set.of(BuiltInMetric.values());
+    private boolean headerWritten;
+    /**
+     * Plugin metrics with a column, fixed when the header is written.
+     */
+    private List<String> additionalMetricNames = List.of();
+
+    public CsvReportWriter(Writer writer) {
+        this.writer = Objects.requireNonNull(writer);
+    }
+
+    @Override
+    public void startReport(Set<BuiltInMetric> builtInMetrics) {
+        this.builtInMetrics = Set.copyOf(builtInMetrics);
+    }
+
+    @Override
+    public void writeClassMetrics(ClassMetrics cm) throws IOException {
+        Map<String, Integer> additionalMetrics = cm.getAdditionalMetrics();
+        if (!headerWritten) {
+            additionalMetricNames = List.copyOf(additionalMetrics.keySet());
+        }
+        writeHeader();
+        writer.write("class," + quote(cm.getClassName())
+                + "," + toCsv(BuiltInMetric.DIT, cm.getDepthOfInheritanceTree())
+                + "," + toCsv(BuiltInMetric.NOC, cm.getNumOfChildren())
+                + "," + toCsv(BuiltInMetric.MIF, cm.getNumOfInheritedAndNonOverrideMethods())
+                + "," + toCsv(BuiltInMetric.MIF, cm.getNumOfAccessibleMethods())
+                + "," + toCsv(BuiltInMetric.MHF, cm.getNumOfPrivateMethods())
+                + "," + toCsv(BuiltInMetric.MHF, cm.getNumOfOpenMethods())
+                + "," + toCsv(BuiltInMetric.AIF, cm.getNumOfInheritedAndNonOverrideFields())
+                + "," + toCsv(BuiltInMetric.AIF, cm.getNumOfAccessibleFields())
+                + "," + toCsv(BuiltInMetric.AHF, cm.getNumOfPrivateFields())
+                + "," + toCsv(BuiltInMetric.AHF, cm.getNumOfFields())
+                + "," + toCsv(BuiltInMetric.POF, cm.getNumOfInheritedAndOverrideMethods())
+                + "," + toCsv(BuiltInMetric.POF, cm.getNumOfNewMethods())
+                + ",,,,,,");
+        for (String name : additionalMetricNames) {
+            Integer value = additionalMetrics.get(name);
+            writer.write(Objects.isNull(value) ? "," : "," + value);
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void writeSummary(Result result) throws IOException {
+        writeHeader();
+        Set<BuiltInMetric> selected = result.getBuiltInMetrics();
+        writeFactors(result, selected, "");
+        if (Objects.nonNull(result.getPackageMetrics())) {
+            for (PackageMetrics packageMetrics : result.getPackageMetrics().flatten()) {
+                writeFactors(packageMetrics.getResult(), selected, quote(packageMetrics.getPackageName()));
+            }
+        }
+        for (SkippedClass skippedClass : result.getSkippedClasses()) {
+            writer.write("skipped," + quote(skippedClass.getClassName()) + ",,,,,,,,,,,,,,,,,,"
+                    + getEmptyAdditionalCells() + "\r\n");
+        }
+    }
+
+    private void writeFactors(Result result, Set<BuiltInMetric> selected, String packageName) throws IOException {
+        for (MoodFactor factor : MoodFactor.of(selected)) {
+            double value = factor.getValue(result);
+            String interval = ",,";
+            if (Objects.nonNull(result.getEstimate())) {
+                Estimate.Interval estimated = factor.getInterval(result.getEstimate());
+                interval = "," + toCsv(estimated.getLower()) + "," + toCsv(estimated.getUpper());
+            }
+            writer.write("factor," + factor.name() + ",,,,,,,,,,,,,"
+                    + toCsv(value)
+                    + "," + (long) factor.getNumerator(result)
+                    + "," + (long) factor.getDenominator(result)
+                    + "," + packageName
+                    + interval
+                    + getEmptyAdditionalCells()
+                    + "\r\n");
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            writer.write(HEADER);
+            for (String name : additionalMetricNames) {
+                writer.write("," + quote(name));
+            }
+            writer.write("\r\n");
+            headerWritten = true;
+        }
+    }
+
+    private String getEmptyAdditionalCells() {
+        return ",".repeat(additionalMetricNames.size());
+    }
+
+    private String toCsv(BuiltInMetric metric, int value) {
+        return builtInMetrics.contains(metric) ? Integer.toString(value) : "";
+    }
+
+    private static String toCsv(double value) {
+        return Double.isNaN(value) ? "" : Double.toString(value);
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
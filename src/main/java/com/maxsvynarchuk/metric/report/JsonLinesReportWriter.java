@@ -0,0 +1,137 @@
+package com.maxsvynarchuk.metric.report;
+
+import com.maxsvynarchuk.metric.ClassMetrics;
+import com.maxsvynarchuk.metric.Estimate;
+import com.maxsvynarchuk.metric.PackageMetrics;
+import com.maxsvynarchuk.metric.Result;
+import com.maxsvynarchuk.metric.SkippedClass;
+import com.maxsvynarchuk.metric.plugin.BuiltInMetric;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * One JSON object per line: a {@code "class"} record per class, then a {@code "factor"} record per MOOD factor.
+ * Class records end with the values of plugin metrics, keyed by metric name in name order.
+ * Per-package factor records follow, with a {@code "package"} key and the package's class count.
+ * A {@code "skipped"} record per class a resilient run left out closes the report.
+ * Values of built-in metrics that were not selected are written as {@code null}, and their factor records are
+ * left out. Undefined factors are written as {@code null}. Factors estimated from a sample carry the {@code "lower"}
+ * and {@code "upper"} bounds of their confidence interval and are preceded by an {@code "estimate"} record.
+ */
+public class JsonLinesReportWriter implements ReportWriter {
+    private final Writer writer;
+    private Set<BuiltInMetric> builtInMetrics = Set.of(BuiltInMetric.values());
+
+    public JsonLinesReportWriter(Writer writer) {
+        this.writer = Objects.requireNonNull(writer);
+    }
+
+    @Override
+    public void startReport(Set<BuiltInMetric> builtInMetrics) {
+        this.builtInMetrics = Set.copyOf(builtInMetrics);
+    }
+
+    @Override
+    public void writeClassMetrics(ClassMetrics cm) throws IOException {
+        writer.write("{\"record\":\"class\",\"className\":" + quote(cm.getClassName())
+                + ",\"depthOfInheritanceTree\":" + toJson(BuiltInMetric.DIT, cm.getDepthOfInheritanceTree())
+                + ",\"numOfChildren\":" + toJson(BuiltInMetric.NOC, cm.getNumOfChildren())
+                + ",\"numOfInheritedAndNonOverrideMethods\":"
+                + toJson(BuiltInMetric.MIF, cm.getNumOfInheritedAndNonOverrideMethods())
+                + ",\"numOfAccessibleMethods\":" + toJson(BuiltInMetric.MIF, cm.getNumOfAccessibleMethods())
+                + ",\"numOfPrivateMethods\":" + toJson(BuiltInMetric.MHF, cm.getNumOfPrivateMethods())
+                + ",\"numOfOpenMethods\":" + toJson(BuiltInMetric.MHF, cm.getNumOfOpenMethods())
+                + ",\"numOfInheritedAndNonOverrideFields\":"
+                + toJson(BuiltInMetric.AIF, cm.getNumOfInheritedAndNonOverrideFields())
+                + ",\"numOfAccessibleFields\":" + toJson(BuiltInMetric.AIF, cm.getNumOfAccessibleFields())
+                + ",\"numOfPrivateFields\":" + toJson(BuiltInMetric.AHF, cm.getNumOfPrivateFields())
+                + ",\"numOfFields\":" + toJson(BuiltInMetric.AHF, cm.getNumOfFields())
+                + ",\"numOfInheritedAndOverrideMethods\":"
+                + toJson(BuiltInMetric.POF, cm.getNumOfInheritedAndOverrideMethods())
+                + ",\"numOfNewMethods\":" + toJson(BuiltInMetric.POF, cm.getNumOfNewMethods()));
+        for (Map.Entry<String, Integer> metric : cm.getAdditionalMetrics().entrySet()) {
+            writer.write("," + quote(metric.getKey()) + ":" + metric.getValue());
+        }
+        writer.write("}\n");
+    }
+
+    @Override
+    public void writeSummary(Result result) throws IOException {
+        Estimate estimate = result.getEstimate();
+        if (Objects.nonNull(estimate)) {
+            writer.write("{\"record\":\"estimate\",\"sampleSize\":" + estimate.getSampleSize()
+                    + ",\"populationSize\":" + estimate.getPopulationSize()
+                    + ",\"numOfStrata\":" + estimate.getNumOfStrata()
+                    + ",\"confidenceLevel\":" + estimate.getConfidenceLevel()
+                    + "}\n");
+        }
+        Set<BuiltInMetric> selected = result.getBuiltInMetrics();
+        writeFactors(result, selected, "");
+        if (Objects.nonNull(result.getPackageMetrics())) {
+            for (PackageMetrics packageMetrics : result.getPackageMetrics().flatten()) {
+                writeFactors(packageMetrics.getResult(), selected,
+                        ",\"package\":" + quote(packageMetrics.getPackageName())
+                                + ",\"numOfClasses\":" + packageMetrics.getResult().getNumOfClasses());
+            }
+        }
+        for (SkippedClass skippedClass : result.getSkippedClasses()) {
+            writer.write("{\"record\":\"skipped\",\"className\":" + quote(skippedClass.getClassName())
+                    + ",\"reason\":" + quote(skippedClass.getReason())
+                    + "}\n");
+        }
+    }
+
+    private void writeFactors(Result result, Set<BuiltInMetric> selected, String scope) throws IOException {
+        for (MoodFactor factor : MoodFactor.of(selected)) {
+            double value = factor.getValue(result);
+            String interval = "";
+            if (Objects.nonNull(result.getEstimate())) {
+                Estimate.Interval estimated = factor.getInterval(result.getEstimate());
+                interval = ",\"lower\":" + toJson(estimated.getLower()) + ",\"upper\":" + toJson(estimated.getUpper());
+            }
+            writer.write("{\"record\":\"factor\",\"factor\":\"" + factor.name() + "\"" + scope
+                    + ",\"value\":" + toJson(value)
+                    + ",\"numerator\":" + (long) factor.getNumerator(result)
+                    + ",\"denominator\":" + (long) factor.getDenominator(result)
+                    + interval
+                    + "}\n");
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private String toJson(BuiltInMetric metric, int value) {
+        return builtInMetrics.contains(metric) ? Integer.toString(value) : "null";
+    }
+
+    private static String toJson(double value) {
+        return Double.isNaN(value) ? "null" : Double.toString(value);
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
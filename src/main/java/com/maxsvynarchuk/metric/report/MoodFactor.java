@@ -0,0 +1,142 @@
+package com.maxsvynarchuk.metric.report;
+
+import com.maxsvynarchuk.metric.Estimate;
+import com.maxsvynarchuk.metric.Result;
+import com.maxsvynarchuk.metric.plugin.BuiltInMetric;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The five factor summaries of a {@link Result}, in report order.
+ */
+enum MoodFactor {
+    MIF {
+        @Override
+        double getValue(Result result) {
+            return result.getMethodInheritanceFactor();
+        }
+
+        @Override
+        Estimate.Interval getInterval(Estimate estimate) {
+            return estimate.getMethodInheritanceFactor();
+        }
+
+        @Override
+        double getNumerator(Result result) {
+            return result.getSumOfInheritedAndNonOverrideMethods();
+        }
+
+        @Override
+        double getDenominator(Result result) {
+            return result.getSumOfAccessibleMethods();
+        }
+    },
+    MHF {
+        @Override
+        double getValue(Result result) {
+            return result.getMethodHidingFactor();
+        }
+
+        @Override
+        Estimate.Interval getInterval(Estimate estimate) {
+            return estimate.getMethodHidingFactor();
+        }
+
+        @Override
+        double getNumerator(Result result) {
+            return result.getSumOfPrivateMethods();
+        }
+
+        @Override
+        double getDenominator(Result result) {
+            return result.getSumOfPrivateMethods() + result.getSumOfOpenMethods();
+        }
+    },
+    AHF {
+        @Override
+        double getValue(Result result) {
+            return result.getAttributeHidingFactor();
+        }
+
+        @Override
+        Estimate.Interval getInterval(Estimate estimate) {
+            return estimate.getAttributeHidingFactor();
+        }
+
+        @Override
+        double getNumerator(Result result) {
+            return result.getSumOfPrivateFields();
+        }
+
+        @Override
+        double getDenominator(Result result) {
+            return result.getSumOfFields();
+        }
+    },
+    AIF {
+        @Override
+        double getValue(Result result) {
+            return result.getAttributeInheritanceFactor();
+        }
+
+        @Override
+        Estimate.Interval getInterval(Estimate estimate) {
+            return estimate.getAttributeInheritanceFactor();
+        }
+
+        @Override
+        double getNumerator(Result result) {
+            return result.getSumOfInheritedAndNonOverrideFields();
+        }
+
+        @Override
+        double getDenominator(Result result) {
+            return result.getSumOfAccessibleFields();
+        }
+    },
+    POF {
+        @Override
+        double getValue(Result result) {
+            return result.getPolymorphismObjectFactor();
+        }
+
+        @Override
+        Estimate.Interval getInterval(Estimate estimate) {
+            return estimate.getPolymorphismObjectFactor();
+        }
+
+        @Override
+        double getNumerator(Result result) {
+            return result.getSumOfInheritedAndOverrideMethods();
+        }
+
+        @Override
+        double getDenominator(Result result) {
+            return result.getNewMethodsCoefficient();
+        }
+    };
+
+    /**
+     * @return factors of {@code builtInMetrics}, in report order
+     */
+    static List<MoodFactor> of(Set<BuiltInMetric> builtInMetrics) {
+        return Arrays.stream(values())
+                .filter(factor -> builtInMetrics.contains(factor.getMetric()))
+                .collect(Collectors.toList());
+    }
+
+    BuiltInMetric getMetric() {
+        return BuiltInMetric.valueOf(name());
+    }
+
+    abstract double getValue(Result result);
+
+    abstract Estimate.Interval getInterval(Estimate estimate);
+
+    abstract double getNumerator(Result result);
+
+    abstract double getDenominator(Result result);
+}
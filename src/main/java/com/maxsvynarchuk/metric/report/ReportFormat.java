@@ -0,0 +1,45 @@
+package com.maxsvynarchuk.metric.report;
+
+import java.io.Writer;
+
+/**
+ * Built-in report formats.
+ */
+public enum ReportFormat implements ReportWriterProvider {
+    TEXT("text", "text/plain") {
+        @Override
+        public ReportWriter create(Writer writer) {
+            return new TextReportWriter(writer);
+        }
+    },
+    JSON_LINES("jsonl", "application/x-ndjson") {
+        @Override
+        public ReportWriter create(Writer writer) {
+            return new JsonLinesReportWriter(writer);
+        }
+    },
+    CSV("csv", "text/csv") {
+        @Override
+        public ReportWriter create(Writer writer) {
+            return new CsvReportWriter(writer);
+        }
+    };
+
+    private final String format;
+    private final String mediaType;
+
+    ReportFormat(String format, String mediaType) {
+        this.format = format;
+        this.mediaType = mediaType;
+    }
+
+    @Override
+    public String getFormat() {
+        return format;
+    }
+
+    @Override
+    public String getMediaType() {
+        return mediaType;
+    }
+}
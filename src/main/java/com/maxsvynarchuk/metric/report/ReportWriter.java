@@ -0,0 +1,45 @@
+package com.maxsvynarchuk.metric.report;
+
+import com.maxsvynarchuk.metric.ClassMetrics;
+import com.maxsvynarchuk.metric.Result;
+import com.maxsvynarchuk.metric.plugin.BuiltInMetric;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Streams an analysis report: {@link #startReport} with the metrics that were selected, {@link #writeClassMetrics}
+ * once per class as soon as the class is done, then {@link #writeSummary} once with the MOOD factors.
+ * Output is buffered; it is only guaranteed to reach the underlying stream after {@link #flush()} or
+ * {@link #close()}.
+ * <p>
+ * Implementations format numbers independently of the default locale, so the same metrics
+ * always produce the same bytes.
+ */
+public interface ReportWriter extends Flushable, Closeable {
+
+    /**
+     * Announces the built-in metrics the analysis computes. The values of the others are zero rather than
+     * measured, so implementations leave them out or mark them as not available. Without this call every
+     * built-in metric counts as computed.
+     */
+    default void startReport(Set<BuiltInMetric> builtInMetrics) throws IOException {
+    }
+
+    /**
+     * Writes the whole report of a {@link Result} that keeps its per-class metrics.
+     */
+    default void writeReport(Result result) throws IOException {
+        startReport(result.getBuiltInMetrics());
+        for (ClassMetrics classMetrics : result.getClassMetrics()) {
+            writeClassMetrics(classMetrics);
+        }
+        writeSummary(result);
+    }
+
+    void writeClassMetrics(ClassMetrics classMetrics) throws IOException;
+
+    void writeSummary(Result result) throws IOException;
+}
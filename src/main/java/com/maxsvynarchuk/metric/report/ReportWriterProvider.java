@@ -0,0 +1,24 @@
+package com.maxsvynarchuk.metric.report;
+
+import java.io.Writer;
+
+/**
+ * Service provider for additional report formats, registered in
+ * {@code META-INF/services/com.maxsvynarchuk.metric.report.ReportWriterProvider}.
+ */
+public interface ReportWriterProvider {
+
+    /**
+     * @return name the format is selected by, e.g. {@code "jsonl"}
+     */
+    String getFormat();
+
+    /**
+     * @return media type of the report, without a charset, e.g. {@code "application/x-ndjson"}
+     */
+    default String getMediaType() {
+        return "text/plain";
+    }
+
+    ReportWriter create(Writer writer);
+}
@@ -0,0 +1,38 @@
+package com.maxsvynarchuk.metric.report;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ServiceLoader;
+
+public final class ReportWriters {
+
+    private ReportWriters() {
+    }
+
+    /**
+     * Looks {@code format} up among the {@link ReportFormat built-in formats} first
+     * and then among the {@link ReportWriterProvider providers} on the class path.
+     */
+    public static ReportWriterProvider getProvider(String format) {
+        for (ReportFormat reportFormat : ReportFormat.values()) {
+            if (reportFormat.getFormat().equals(format)) {
+                return reportFormat;
+            }
+        }
+        for (ReportWriterProvider provider : ServiceLoader.load(ReportWriterProvider.class)) {
+            if (provider.getFormat().equals(format)) {
+                return provider;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report format: " + format);
+    }
+
+    /**
+     * @return writer that encodes the report as UTF-8 into a buffer in front of {@code out}
+     */
+    public static ReportWriter create(String format, OutputStream out) {
+        return getProvider(format).create(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+}
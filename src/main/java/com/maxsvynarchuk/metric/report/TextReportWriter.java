@@ -0,0 +1,256 @@
+package com.maxsvynarchuk.metric.report;
+
+import com.maxsvynarchuk.metric.ClassMetrics;
+import com.maxsvynarchuk.metric.Estimate;
+import com.maxsvynarchuk.metric.PackageMetrics;
+import com.maxsvynarchuk.metric.Result;
+import com.maxsvynarchuk.metric.SkippedClass;
+import com.maxsvynarchuk.metric.plugin.BuiltInMetric;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The human-readable layout of {@link Result#printAll()}.
+ * <p>
+ * Depths of inheritance are written as classes arrive. The number-of-children section follows
+ * it in the layout, so its lines are kept in memory until {@link #writeSummary}, as are those of the
+ * section each plugin metric gets after it, in name order.
+ * <p>
+ * Every section can also be written on its own, which the {@code print} methods of {@link Result} do.
+ * <p>
+ * The report leaves out the sections of built-in metrics that were not selected; written on its own,
+ * such a section says {@code n/a}.
+ */
+public class TextReportWriter implements ReportWriter {
+    private static final String NOT_AVAILABLE = "n/a\n";
+
+    private final Writer writer;
+    private final StringBuilder numberOfChildren = new StringBuilder();
+    private final Map<String, StringBuilder> additionalMetrics = new TreeMap<>();
+    private Set<BuiltInMetric> builtInMetrics = Set.of(BuiltInMetric.values());
+    private boolean started;
+
+    public TextReportWriter(Writer writer) {
+        this.writer = Objects.requireNonNull(writer);
+    }
+
+    @Override
+    public void startReport(Set<BuiltInMetric> builtInMetrics) {
+        this.builtInMetrics = Set.copyOf(builtInMetrics);
+    }
+
+    @Override
+    public void writeClassMetrics(ClassMetrics classMetrics) throws IOException {
+        writeHeader();
+        if (builtInMetrics.contains(BuiltInMetric.DIT)) {
+            writeDepthOfInheritanceTree(classMetrics);
+        }
+        if (builtInMetrics.contains(BuiltInMetric.NOC)) {
+            numberOfChildren.append(classMetrics.getNumOfChildren()).append(" > ")
+                    .append(classMetrics.getClassName()).append('\n');
+        }
+        classMetrics.getAdditionalMetrics().forEach((name, value) -> additionalMetrics
+                .computeIfAbsent(name, k -> new StringBuilder())
+                .append(value).append(" > ").append(classMetrics.getClassName()).append('\n'));
+    }
+
+    @Override
+    public void writeSummary(Result result) throws IOException {
+        writeHeader();
+        if (builtInMetrics.contains(BuiltInMetric.NOC)) {
+            writer.write("\n>>> Number of children:\n");
+            writer.append(numberOfChildren);
+        }
+        numberOfChildren.setLength(0);
+        for (Map.Entry<String, StringBuilder> metric : additionalMetrics.entrySet()) {
+            writer.write("\n>>> " + metric.getKey() + ":\n");
+            writer.append(metric.getValue());
+        }
+        additionalMetrics.clear();
+        started = false;
+
+        Set<BuiltInMetric> selected = result.getBuiltInMetrics();
+        if (selected.contains(BuiltInMetric.MIF)) {
+            writer.write("\n");
+            writeMethodInheritanceFactor(result);
+        }
+        if (selected.contains(BuiltInMetric.MHF)) {
+            writer.write("\n");
+            writeMethodHidingFactor(result);
+        }
+        if (selected.contains(BuiltInMetric.AHF)) {
+            writer.write("\n");
+            writeAttributeHidingFactor(result);
+        }
+        if (selected.contains(BuiltInMetric.AIF)) {
+            writer.write("\n");
+            writeAttributeInheritanceFactor(result);
+        }
+        if (selected.contains(BuiltInMetric.POF)) {
+            writer.write("\n");
+            writePolymorphismObjectFactor(result);
+        }
+        if (Objects.nonNull(result.getEstimate())) {
+            writeEstimate(result.getEstimate(), selected);
+        }
+        if (Objects.nonNull(result.getPackageMetrics())) {
+            writePackages(result.getPackageMetrics(), selected);
+        }
+        if (result.getNumOfSkippedClasses() > 0) {
+            writeSkippedClasses(result);
+        }
+    }
+
+    public void writeDepthOfInheritanceTree(List<ClassMetrics> classMetrics) throws IOException {
+        writer.write(">>> Depth of Inheritance Tree:\n");
+        if (!builtInMetrics.contains(BuiltInMetric.DIT)) {
+            writer.write(NOT_AVAILABLE);
+            return;
+        }
+        for (ClassMetrics cm : classMetrics) {
+            writeDepthOfInheritanceTree(cm);
+        }
+    }
+
+    public void writeNumberOfChildren(List<ClassMetrics> classMetrics) throws IOException {
+        writer.write(">>> Number of children:\n");
+        if (!builtInMetrics.contains(BuiltInMetric.NOC)) {
+            writer.write(NOT_AVAILABLE);
+            return;
+        }
+        for (ClassMetrics cm : classMetrics) {
+            writer.write(cm.getNumOfChildren() + " > " + cm.getClassName() + "\n");
+        }
+    }
+
+    public void writeMethodInheritanceFactor(Result result) throws IOException {
+        writer.write(">>> Method Inheritance Factor: ");
+        writeFactor(BuiltInMetric.MIF, result.getMethodInheritanceFactor(), "No accessible methods",
+                "%f (%.0f / %.0f)\n",
+                result.getSumOfInheritedAndNonOverrideMethods(),
+                result.getSumOfAccessibleMethods());
+    }
+
+    public void writeMethodHidingFactor(Result result) throws IOException {
+        writer.write(">>> Method Hiding Factor: ");
+        writeFactor(BuiltInMetric.MHF, result.getMethodHidingFactor(), "No accessible methods",
+                "%f (%.0f / [%.0f + %.0f])\n",
+                result.getSumOfPrivateMethods(),
+                result.getSumOfPrivateMethods(),
+                result.getSumOfOpenMethods());
+    }
+
+    public void writeAttributeHidingFactor(Result result) throws IOException {
+        writer.write(">>> Attribute Hiding Factor: ");
+        writeFactor(BuiltInMetric.AHF, result.getAttributeHidingFactor(), "No accessible fields",
+                "%f (%.0f / %.0f)\n",
+                result.getSumOfPrivateFields(),
+                result.getSumOfFields());
+    }
+
+    public void writeAttributeInheritanceFactor(Result result) throws IOException {
+        writer.write(">>> Attribute Inheritance Factor: ");
+        writeFactor(BuiltInMetric.AIF, result.getAttributeInheritanceFactor(), "No accessible fields",
+                "%f (%.0f / %.0f)\n",
+                result.getSumOfInheritedAndNonOverrideFields(),
+                result.getSumOfAccessibleFields());
+    }
+
+    public void writePolymorphismObjectFactor(Result result) throws IOException {
+        writer.write(">>> Polymorphism Object Factor: ");
+        writeFactor(BuiltInMetric.POF, result.getPolymorphismObjectFactor(), "No accessible methods",
+                "%f (%.0f / %.0f)\n",
+                result.getSumOfInheritedAndOverrideMethods(),
+                result.getNewMethodsCoefficient());
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeHeader() throws IOException {
+        if (!started && builtInMetrics.contains(BuiltInMetric.DIT)) {
+            writer.write(">>> Depth of Inheritance Tree:\n");
+            started = true;
+        }
+    }
+
+    private void writeDepthOfInheritanceTree(ClassMetrics classMetrics) throws IOException {
+        if (classMetrics.getDepthOfInheritanceTree() >= 0) {
+            writer.write(classMetrics.getDepthOfInheritanceTree() + " > " + classMetrics.getClassName() + "\n");
+        }
+    }
+
+    private void writePackages(PackageMetrics root, Set<BuiltInMetric> selected) throws IOException {
+        writer.write("\n>>> Packages:\n");
+        for (PackageMetrics packageMetrics : root.flatten()) {
+            Result result = packageMetrics.getResult();
+            String name = packageMetrics.getPackageName();
+            StringBuilder line = new StringBuilder()
+                    .append(name.isEmpty() ? "(default package)" : name)
+                    .append(" classes=").append(result.getNumOfClasses());
+            for (MoodFactor factor : MoodFactor.of(selected)) {
+                double value = factor.getValue(result);
+                line.append(' ').append(factor.name()).append('=')
+                        .append(Double.isNaN(value) ? "n/a" : String.format(Locale.ROOT, "%f", value));
+            }
+            writer.write(line.append('\n').toString());
+        }
+    }
+
+    private void writeEstimate(Estimate estimate, Set<BuiltInMetric> selected) throws IOException {
+        writer.write(String.format(Locale.ROOT, "\n>>> Estimate: %d of %d classes sampled in %d strata, "
+                        + "%.0f%% confidence intervals:\n",
+                estimate.getSampleSize(),
+                estimate.getPopulationSize(),
+                estimate.getNumOfStrata(),
+                estimate.getConfidenceLevel() * 100));
+        for (MoodFactor factor : MoodFactor.of(selected)) {
+            Estimate.Interval interval = factor.getInterval(estimate);
+            writer.write(factor.name() + (Double.isNaN(interval.getHalfWidth())
+                    ? " n/a\n"
+                    : String.format(Locale.ROOT, " [%f, %f]\n", interval.getLower(), interval.getUpper())));
+        }
+    }
+
+    private void writeSkippedClasses(Result result) throws IOException {
+        writer.write(String.format(Locale.ROOT, "\n>>> Coverage: %d of %d classes analyzed (%.2f%%), skipped:\n",
+                result.getNumOfAnalyzedClasses(),
+                result.getNumOfAnalyzedClasses() + result.getNumOfSkippedClasses(),
+                result.getCoverage() * 100));
+        for (SkippedClass skippedClass : result.getSkippedClasses()) {
+            writer.write(skippedClass.getClassName() + " > " + skippedClass.getReason() + "\n");
+        }
+    }
+
+    private void writeFactor(BuiltInMetric metric, double factor, String undefined, String format, double... sums)
+            throws IOException {
+        if (!builtInMetrics.contains(metric)) {
+            writer.write(NOT_AVAILABLE);
+            return;
+        }
+        if (Double.isNaN(factor)) {
+            writer.write(undefined + "\n");
+            return;
+        }
+        Object[] args = new Object[sums.length + 1];
+        args[0] = factor;
+        for (int i = 0; i < sums.length; i++) {
+            args[i + 1] = sums[i];
+        }
+        writer.write(String.format(Locale.ROOT, format, args));
+    }
+}